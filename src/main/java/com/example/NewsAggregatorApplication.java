@@ -1,5 +1,7 @@
 package com.example;
 
+import java.util.Map;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
@@ -9,7 +11,17 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableScheduling
 public class NewsAggregatorApplication {
     public static void main(String[] args) {
-        SpringApplication.run(NewsAggregatorApplication.class, args);
+        SpringApplication app = new SpringApplication(NewsAggregatorApplication.class);
+        // Serve each request on a virtual thread so blocking calls (Mongo, HuggingFace, TTS)
+        // do not pin platform threads; override with --spring.threads.virtual.enabled=false
+        app.setDefaultProperties(Map.of(
+                "spring.threads.virtual.enabled", "true",
+                // Prometheus scrape endpoint at /actuator/prometheus, with latency histograms
+                "management.endpoints.web.exposure.include", "health,prometheus",
+                "management.metrics.distribution.percentiles-histogram.newsagg", "true",
+                "management.metrics.distribution.percentiles-histogram.mongodb.driver.commands", "true",
+                "management.metrics.distribution.percentiles-histogram.http.server.requests", "true"));
+        app.run(args);
         System.out.println("🚀 News API running on http://localhost:8080/api/news");
     }
 }
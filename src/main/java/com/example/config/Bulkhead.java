@@ -0,0 +1,102 @@
+package com.example.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Semaphore bulkhead for one group of expensive endpoints.
+ *
+ * At most maxConcurrent requests of the group run at once. Further requests queue for
+ * up to maxWait and are then rejected, so a slow downstream (HuggingFace, the TTS
+ * server) can only tie up its own permits, never the whole server.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Semaphore permits;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Wait up to maxWait for a permit.
+     *
+     * @return true if acquired; the caller must then call {@link #release()}
+     */
+    public boolean tryAcquire() {
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (acquired) {
+            accepted.increment();
+        } else {
+            rejected.increment();
+        }
+        return acquired;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() { return name; }
+
+    public int getMaxConcurrent() { return maxConcurrent; }
+
+    public int getActive() { return maxConcurrent - permits.availablePermits(); }
+
+    public int getWaiting() { return waiting.get(); }
+
+    public long getAccepted() { return accepted.sum(); }
+
+    public long getRejected() { return rejected.sum(); }
+
+    public long getTotalWaitNanos() { return totalWaitNanos.sum(); }
+
+    /**
+     * Point-in-time statistics, for the admin endpoint.
+     */
+    public Map<String, Object> stats() {
+        long calls = accepted.sum() + rejected.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("maxWaitMs", maxWait.toMillis());
+        stats.put("active", getActive());
+        stats.put("waiting", getWaiting());
+        stats.put("accepted", accepted.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("avgQueueWaitMs", calls == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / calls);
+        stats.put("maxQueueWaitMs", maxWaitNanos.get() / 1_000_000.0);
+        return stats;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Maps expensive endpoint groups to their bulkheads.
+ */
+@Configuration
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public BulkheadConfig(BulkheadRegistry bulkheadRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(bulkheadRegistry.get(BulkheadRegistry.SUMMARIZE)))
+                .addPathPatterns("/api/summarize");
+        registry.addInterceptor(new BulkheadInterceptor(bulkheadRegistry.get(BulkheadRegistry.TTS)))
+                .addPathPatterns("/api/tts/**");
+        registry.addInterceptor(new BulkheadInterceptor(bulkheadRegistry.get(BulkheadRegistry.PATTERN)))
+                .addPathPatterns("/api/pattern/detect", "/api/pattern/detect/**");
+        registry.addInterceptor(new BulkheadInterceptor(bulkheadRegistry.get(BulkheadRegistry.SPELLCHECK)))
+                .addPathPatterns("/api/spellcheck", "/api/spellcheck-suggestions");
+    }
+}
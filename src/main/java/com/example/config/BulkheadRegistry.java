@@ -0,0 +1,66 @@
+package com.example.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * The bulkheads guarding expensive endpoint groups, configured from properties.
+ */
+@Component
+public class BulkheadRegistry {
+
+    public static final String SUMMARIZE = "summarize";
+    public static final String TTS = "tts";
+    public static final String PATTERN = "pattern";
+    public static final String SPELLCHECK = "spellcheck";
+
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+    public BulkheadRegistry(
+            @Value("${bulkhead.summarize.max-concurrent:4}") int summarizeConcurrent,
+            @Value("${bulkhead.summarize.max-wait-ms:2000}") long summarizeWaitMs,
+            @Value("${bulkhead.tts.max-concurrent:4}") int ttsConcurrent,
+            @Value("${bulkhead.tts.max-wait-ms:2000}") long ttsWaitMs,
+            @Value("${bulkhead.pattern.max-concurrent:4}") int patternConcurrent,
+            @Value("${bulkhead.pattern.max-wait-ms:1000}") long patternWaitMs,
+            @Value("${bulkhead.spellcheck.max-concurrent:8}") int spellcheckConcurrent,
+            @Value("${bulkhead.spellcheck.max-wait-ms:500}") long spellcheckWaitMs) {
+        register(new Bulkhead(SUMMARIZE, summarizeConcurrent, Duration.ofMillis(summarizeWaitMs)));
+        register(new Bulkhead(TTS, ttsConcurrent, Duration.ofMillis(ttsWaitMs)));
+        register(new Bulkhead(PATTERN, patternConcurrent, Duration.ofMillis(patternWaitMs)));
+        register(new Bulkhead(SPELLCHECK, spellcheckConcurrent, Duration.ofMillis(spellcheckWaitMs)));
+    }
+
+    private void register(Bulkhead bulkhead) {
+        bulkheads.put(bulkhead.getName(), bulkhead);
+
+        // Same counters as /api/admin/bulkheads, for the Prometheus scrape
+        MeterRegistry registry = Metrics.globalRegistry;
+        Tags tags = Tags.of("bulkhead", bulkhead.getName());
+        Gauge.builder("newsagg.bulkhead.active", bulkhead, Bulkhead::getActive).tags(tags).register(registry);
+        Gauge.builder("newsagg.bulkhead.waiting", bulkhead, Bulkhead::getWaiting).tags(tags).register(registry);
+        FunctionCounter.builder("newsagg.bulkhead.accepted", bulkhead, Bulkhead::getAccepted).tags(tags).register(registry);
+        FunctionCounter.builder("newsagg.bulkhead.rejected", bulkhead, Bulkhead::getRejected).tags(tags).register(registry);
+        FunctionCounter.builder("newsagg.bulkhead.queue.wait", bulkhead, b -> b.getTotalWaitNanos() / 1e9)
+                .baseUnit("seconds").tags(tags).register(registry);
+    }
+
+    public Bulkhead get(String name) {
+        return bulkheads.get(name);
+    }
+
+    public Collection<Bulkhead> all() {
+        return bulkheads.values();
+    }
+}
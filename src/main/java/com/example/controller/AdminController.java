@@ -1,6 +1,7 @@
 package com.example.controller;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.bson.Document;
@@ -10,10 +11,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.config.Bulkhead;
+import com.example.config.BulkheadRegistry;
 import com.example.db.MongoDBConnection;
 import com.example.service.CrawlerService;
+import com.example.utils.ArticleKeys;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -22,6 +27,9 @@ public class AdminController {
     @Autowired
     private CrawlerService crawlerService;
 
+    @Autowired
+    private BulkheadRegistry bulkheadRegistry;
+
     /**
      * Get statistics about articles in the database
      */
@@ -33,9 +41,10 @@ public class AdminController {
             MongoCollection<Document> collection = database.getCollection("articles");
             
             long totalCount = collection.countDocuments();
-            long bbcCount = collection.countDocuments(new Document("Source", "BBC"));
-            long cnnCount = collection.countDocuments(new Document("Source", "CNN"));
-            long guardianCount = collection.countDocuments(new Document("Source", "Guardian"));
+            // Equality on the indexed canonical source key
+            long bbcCount = collection.countDocuments(Filters.eq(ArticleKeys.SOURCE_KEY, "bbc"));
+            long cnnCount = collection.countDocuments(Filters.eq(ArticleKeys.SOURCE_KEY, "cnn"));
+            long guardianCount = collection.countDocuments(Filters.eq(ArticleKeys.SOURCE_KEY, "guardian"));
             
             stats.put("success", true);
             stats.put("totalArticles", totalCount);
@@ -67,4 +76,16 @@ public class AdminController {
         }
         return response;
     }
+
+    /**
+     * Concurrency, queueing and rejection counts for each endpoint bulkhead
+     */
+    @GetMapping("/bulkheads")
+    public Map<String, Object> getBulkheadStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Bulkhead bulkhead : bulkheadRegistry.all()) {
+            stats.put(bulkhead.getName(), bulkhead.stats());
+        }
+        return stats;
+    }
 }
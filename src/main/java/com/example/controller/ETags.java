@@ -0,0 +1,31 @@
+package com.example.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Strong ETags for feed endpoints.
+ *
+ * A feed response only changes when the corpus changes, so the tag is the catalog
+ * version plus a checksum of the request parameters. Controllers pass it to
+ * WebRequest.checkNotModified(...) and return early with 304 on a match, before any
+ * service call or JSON serialization happens.
+ */
+public final class ETags {
+
+    // Catalog versions restart at 1, so tags from a previous process must not match
+    private static final String BOOT_ID = Long.toHexString(System.currentTimeMillis());
+
+    private ETags() {
+    }
+
+    public static String of(String endpoint, long corpusVersion, Object... params) {
+        StringBuilder key = new StringBuilder(endpoint);
+        for (Object param : params) {
+            key.append('\u0000').append(param);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(key.toString().getBytes(StandardCharsets.UTF_8));
+        return "\"" + BOOT_ID + "-" + corpusVersion + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+}
@@ -5,8 +5,10 @@ import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.model.News;
+import com.example.service.ArticleCatalog;
 import com.example.service.HomeService;
 
 @RestController
@@ -16,8 +18,15 @@ public class HomeController {
     @Autowired
     private HomeService homeService;
 
+    @Autowired
+    private ArticleCatalog articleCatalog;
+
     @GetMapping
-   public Map<String, List<News>> getHomeNews() {
+    public Map<String, List<News>> getHomeNews(WebRequest request) {
+        // 304 without touching the service while the corpus is unchanged
+        if (request.checkNotModified(ETags.of("home", articleCatalog.snapshot().getVersion()))) {
+            return null;
+        }
         return homeService.getNewsGroupedBySection();
     }
 }
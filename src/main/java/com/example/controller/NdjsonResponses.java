@@ -0,0 +1,47 @@
+package com.example.controller;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Newline-delimited JSON responses for endpoints whose result size is unbounded.
+ *
+ * Items are pulled from a lazy stream and written one JSON object per line as they
+ * are produced. Writes block when the client reads slowly, which in turn stops the
+ * stream from being pulled, so heap use stays bounded by one item plus the buffer.
+ */
+public final class NdjsonResponses {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    // Flush periodically so clients see results before the stream ends
+    private static final int FLUSH_EVERY = 50;
+
+    private NdjsonResponses() {
+    }
+
+    public static ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Stream<?> items) {
+        StreamingResponseBody body = out -> {
+            try (items) {
+                Iterator<?> iterator = items.iterator();
+                int written = 0;
+                while (iterator.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                    if (++written % FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                }
+                out.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+}
@@ -7,9 +7,12 @@ import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.model.News;
+import com.example.service.ArticleCatalog;
 import com.example.service.NewsService;
+import com.example.service.SearchStatsService;
 
 @RestController
 @RequestMapping("/api")
@@ -19,24 +22,39 @@ public class NewsController {
     @Autowired
     private NewsService newsService;
 
+    @Autowired
+    private ArticleCatalog articleCatalog;
+
+    @Autowired
+    private SearchStatsService searchStatsService;
+
     /**
      * Endpoint: GET /api/news
-     * Fetch news articles with optional search and section filtering
+     * Fetch news articles with optional search and section filtering.
+     * A non-empty search is answered by the full-text index: all terms must match,
+     * "quoted text" must match as a phrase, and results are ordered by relevance.
+     * sort=recency orders by publication time, newest first.
      */
     @GetMapping("/news")
     public ResponseEntity<List<News>> getAllNews(
             @RequestParam(name = "page", defaultValue = "1") int page,
             @RequestParam(name = "limit", defaultValue = "30") int limit,
             @RequestParam(name = "search", defaultValue = "") String search,
-            @RequestParam(name = "section", defaultValue = "all") String section) {
+            @RequestParam(name = "section", defaultValue = "all") String section,
+            @RequestParam(name = "sort", defaultValue = "") String sort,
+            WebRequest request) {
         
         try {
+            if (request.checkNotModified(ETags.of("news", articleCatalog.snapshot().getVersion(), page, limit, search, section, sort))) {
+                return null;
+            }
+
             System.out.println("📰 NewsController: GET /api/news");
             System.out.println("   Page: " + page + ", Limit: " + limit);
             System.out.println("   Search: '" + search + "'");
             System.out.println("   Section: '" + section + "'");
 
-            List<News> result = newsService.getAllNews(page, limit, search, section);
+            List<News> result = newsService.getAllNews(page, limit, search, section, sort);
             
             System.out.println("✅ Returned " + result.size() + " articles");
             
@@ -49,6 +67,47 @@ public class NewsController {
         }
     }
 
+    /**
+     * Endpoint: GET /api/news/feed
+     * Cursor-paginated feed, newest first. Pass the returned "nextCursor" to get the next page;
+     * the cost per page does not depend on how far the client has scrolled.
+     * Response: { "items": [...], "nextCursor": "..." }
+     */
+    @GetMapping("/news/feed")
+    public ResponseEntity<Map<String, Object>> getNewsFeed(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "30") int limit,
+            @RequestParam(name = "section", defaultValue = "all") String section) {
+
+        try {
+            return ResponseEntity.ok(newsService.getFeed(cursor, Math.max(limit, 1), section));
+
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            System.err.println("❌ Error in NewsController.getNewsFeed: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    /**
+     * Endpoint: GET /api/news/count
+     * Total number of articles for a search/section filter (cached per corpus version)
+     */
+    @GetMapping("/news/count")
+    public ResponseEntity<Map<String, Object>> getNewsCount(
+            @RequestParam(name = "search", defaultValue = "") String search,
+            @RequestParam(name = "section", defaultValue = "all") String section) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("total", newsService.countNews(search, section));
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Endpoint: POST /api/search-increment
      * Increment search frequency for analytics
@@ -65,6 +124,7 @@ public class NewsController {
                 return ResponseEntity.badRequest().body(response);
             }
 
+            searchStatsService.recordSearch(searchTerm);
             System.out.println("📊 Search Frequency Incremented: '" + searchTerm.trim() + "'");
 
             Map<String, Object> response = new HashMap<>();
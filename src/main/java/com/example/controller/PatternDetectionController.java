@@ -2,10 +2,15 @@ package com.example.controller;
 
 import com.example.model.News;
 import com.example.service.PatternDetectionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 @RestController
 @RequestMapping("/api/pattern")
@@ -14,6 +19,9 @@ public class PatternDetectionController {
     @Autowired
     private PatternDetectionService patternService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/test")
     public String test() {
         return "Pattern detection API is working!";
@@ -23,4 +31,21 @@ public class PatternDetectionController {
     public List<News> detect(@RequestBody String regex) {
         return patternService.detectPattern(regex);
     }
+
+    /**
+     * Streaming variant of /detect for large result sets.
+     * POST /api/pattern/detect/stream
+     * Body: regex (plain text)
+     * Response: application/x-ndjson, one article per line, written as matches are found
+     */
+    @PostMapping(value = "/detect/stream", produces = NdjsonResponses.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> detectStream(@RequestBody String regex) {
+        Pattern pattern;
+        try {
+            pattern = Pattern.compile(regex.trim(), Pattern.CASE_INSENSITIVE);
+        } catch (PatternSyntaxException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return NdjsonResponses.of(objectMapper, patternService.streamMatches(pattern));
+    }
 }
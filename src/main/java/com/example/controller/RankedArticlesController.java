@@ -1,15 +1,24 @@
 package com.example.controller;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.model.News;
+import com.example.service.ArticleCatalog;
+import com.example.service.PopularityService;
 import com.example.service.RankedArticlesService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api")
@@ -18,18 +27,28 @@ public class RankedArticlesController {
     @Autowired
     private RankedArticlesService rankedArticlesService;
 
+    @Autowired
+    private ArticleCatalog articleCatalog;
+
+    @Autowired
+    private PopularityService popularityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Get all ranked articles
      */
     @GetMapping("/ranked-articles")
     public List<News> getRankedArticles(
-            @RequestParam(name = "limit", defaultValue = "30") int limit) {
-        List<News> rankedNews = rankedArticlesService.getRankedNews();
-        
+            @RequestParam(name = "limit", defaultValue = "30") int limit,
+            WebRequest request) {
+        if (request.checkNotModified(ETags.of("ranked", articleCatalog.snapshot().getVersion(), limit, popularityService.version()))) {
+            return null;
+        }
+
         // Return only the top 'limit' articles
-        return rankedNews.stream()
-                .limit(limit)
-                .collect(java.util.stream.Collectors.toList());
+        return rankedArticlesService.getTopRankedNews(1, limit);
     }
 
     /**
@@ -38,7 +57,74 @@ public class RankedArticlesController {
     @GetMapping("/news/top-stories")
     public List<News> getTopStories(
             @RequestParam(name = "page", defaultValue = "1") int page,
-            @RequestParam(name = "limit", defaultValue = "30") int limit) {
+            @RequestParam(name = "limit", defaultValue = "30") int limit,
+            WebRequest request) {
+        if (request.checkNotModified(ETags.of("top-stories", articleCatalog.snapshot().getVersion(), page, limit, popularityService.version()))) {
+            return null;
+        }
         return rankedArticlesService.getTopRankedNews(page, limit);
     }
-}
\ No newline at end of file
+
+    /**
+     * Token-paginated top stories. Pass the returned "nextPageToken" to get the next page;
+     * all pages of a walk come from the same ranking version.
+     * Response: { "items": [...], "version": 12, "nextPageToken": "..." }
+     * 400 for a malformed token, 410 once the token's ranking has expired.
+     */
+    @GetMapping("/news/top-stories/page")
+    public ResponseEntity<Map<String, Object>> getTopStoriesPage(
+            @RequestParam(name = "pageToken", required = false) String pageToken,
+            @RequestParam(name = "limit", defaultValue = "30") int limit) {
+        try {
+            return ResponseEntity.ok(rankedArticlesService.getTopStoriesPage(pageToken, Math.max(limit, 1)));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "error");
+            response.put("message", e.getMessage());
+            HttpStatus status = e instanceof IllegalStateException ? HttpStatus.GONE : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(response);
+        }
+    }
+
+    /**
+     * Most read articles right now, by time-decayed views
+     * GET /api/news/most-read?limit=10
+     * Each article's score is its decayed view count.
+     */
+    @GetMapping("/news/most-read")
+    public List<News> getMostRead(@RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return popularityService.getMostRead(Math.min(Math.max(limit, 1), 100));
+    }
+
+    /**
+     * Top stories for a topic, scored by BM25 relevance to the query
+     * GET /api/ranked-articles/topic?q=climate+policy&limit=10&section=all
+     */
+    @GetMapping("/ranked-articles/topic")
+    public ResponseEntity<List<News>> getTopStoriesForTopic(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "limit", defaultValue = "10") int limit,
+            @RequestParam(name = "section", defaultValue = "all") String section,
+            WebRequest request) {
+        if (query.trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.checkNotModified(ETags.of("topic", articleCatalog.snapshot().getVersion(), query, limit, section))) {
+            return null;
+        }
+        return ResponseEntity.ok(rankedArticlesService.getTopStoriesForTopic(query, section, Math.min(limit, 100)));
+    }
+
+    /**
+     * Stream ranked articles as NDJSON (one article per line, best first)
+     * GET /api/ranked-articles/stream?limit=1000 (no limit = whole corpus); 400 for a negative limit
+     */
+    @GetMapping(value = "/ranked-articles/stream", produces = NdjsonResponses.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRankedArticles(
+            @RequestParam(name = "limit", defaultValue = "" + Long.MAX_VALUE) long limit) {
+        if (limit < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return NdjsonResponses.of(objectMapper, rankedArticlesService.streamRankedNews().limit(limit));
+    }
+}
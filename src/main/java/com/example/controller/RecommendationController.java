@@ -79,7 +79,7 @@ public class RecommendationController {
 
     /**
      * Get personalized recommendations
-     * GET /api/recommendations?userId=user@email.com&limit=20
+     * GET /api/recommendations?userId=user@email.com&limit=20 (limit 1-100)
      */
     @GetMapping
     public ResponseEntity<List<News>> getRecommendations(
@@ -91,7 +91,7 @@ public class RecommendationController {
                 return ResponseEntity.badRequest().build();
             }
 
-            List<News> recommendations = recommendationService.getRecommendations(userId, limit);
+            List<News> recommendations = recommendationService.getRecommendations(userId, Math.min(Math.max(limit, 1), 100));
             return ResponseEntity.ok(recommendations);
 
         } catch (Exception e) {
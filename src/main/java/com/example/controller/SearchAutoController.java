@@ -17,7 +17,7 @@ public class SearchAutoController {
 
     /**
      * Get autocomplete suggestions (NO frequency increment)
-     * Called on every keystroke
+     * Called on every keystroke; multi-word input ("prime min") completes headline phrases
      * POST /api/search-autocomplete
      * Body: "covid" (plain text)
      * Response: [{ "term": "covid", "frequency": 15 }, ...]
@@ -25,7 +25,7 @@ public class SearchAutoController {
     @PostMapping("/search-autocomplete")
     public List<Map<String, Object>> getSuggestions(@RequestBody String term,
                                                      @RequestParam(defaultValue = "10") int limit) {
-        return searchService.getSuggestions(term, limit);
+        return searchService.getSuggestions(term, Math.min(Math.max(limit, 1), 100));
     }
 
     /**
@@ -44,10 +44,11 @@ public class SearchAutoController {
     /**
      * Get top searched terms (for analytics)
      * GET /api/search-top?limit=10
-     * Response: [{ "term": "covid", "frequency": 25 }, ...]
+     * Response: [{ "term": "covid", "frequency": 25, "error": 0 }, ...]
+     * (frequency may overcount by at most error)
      */
     @GetMapping("/search-top")
     public List<Map<String, Object>> getTopSearches(@RequestParam(defaultValue = "10") int limit) {
-        return searchService.getTopSearches(limit);
+        return searchService.getTopSearches(Math.min(Math.max(limit, 1), 100));
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.service.TrendingService;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class TrendingController {
+
+    @Autowired
+    private TrendingService trendingService;
+
+    /**
+     * Terms trending in headlines and searches right now
+     * GET /api/trending?limit=20
+     * Response: { "trending": [{ "term": "election", "count": 42, "expected": 6.5, "ratio": 5.74 }, ...], ... }
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<Map<String, Object>> getTrending(@RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("status", "error", "message", "limit must be between 1 and 100"));
+        }
+        return ResponseEntity.ok(trendingService.getTrending(limit));
+    }
+}
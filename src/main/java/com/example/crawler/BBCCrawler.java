@@ -9,6 +9,9 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.example.service.CSVWriter;
+import com.example.utils.ArticleKeys;
+import com.example.utils.PublishedAt;
+import com.example.utils.ServiceMetrics;
 import com.example.utils.Utils;
 
 public class BBCCrawler {
@@ -31,7 +34,7 @@ public class BBCCrawler {
     
     private void crawlMainPage(CSVWriter csvWriter, Set<String> seenUrls) {
         try {
-            driver.get("https://www.bbc.com/news");
+            ServiceMetrics.timePageLoad("bbc", () -> driver.get("https://www.bbc.com/news"));
             System.out.println("Crawling BBC News main page...");
             handleCookies();
             wait.until(org.openqa.selenium.support.ui.ExpectedConditions.presenceOfElementLocated(
@@ -75,7 +78,7 @@ public class BBCCrawler {
         
         for (String[] section : sections) {
             try {
-                driver.get(section[1]);
+                ServiceMetrics.timePageLoad("bbc", () -> driver.get(section[1]));
                 System.out.println("Crawling BBC: " + section[0]);
                 Utils.sleep(2000);
                 
@@ -114,7 +117,7 @@ public class BBCCrawler {
      */
     public void crawlForHomeSections(CSVWriter csvWriter, Set<String> seenUrls, List<String> allowedSectionTitles) {
         try {
-            driver.get("https://www.bbc.com/news");
+            ServiceMetrics.timePageLoad("bbc", () -> driver.get("https://www.bbc.com/news"));
             System.out.println("Crawling BBC News main page for home sections...");
             handleCookies();
             wait.until(org.openqa.selenium.support.ui.ExpectedConditions.presenceOfElementLocated(
@@ -154,7 +157,7 @@ public class BBCCrawler {
     public java.util.List<org.bson.Document> crawlForHomeSectionsToDocs(Set<String> seenUrls, java.util.List<String> allowedSectionTitles) {
         java.util.List<org.bson.Document> docs = new java.util.ArrayList<>();
         try {
-            driver.get("https://www.bbc.com/news");
+            ServiceMetrics.timePageLoad("bbc", () -> driver.get("https://www.bbc.com/news"));
             System.out.println("Crawling BBC News main page for home sections (to docs)...");
             handleCookies();
             wait.until(org.openqa.selenium.support.ui.ExpectedConditions.presenceOfElementLocated(
@@ -212,7 +215,10 @@ public class BBCCrawler {
                         .append("Time", time)
                         .append("Category", category)
                         .append("Link", link)
-                        .append("ImageLink", imageLink);
+                        .append("ImageLink", imageLink)
+                        .append(ArticleKeys.SECTION_KEY, ArticleKeys.canonical(section))
+                        .append(ArticleKeys.SOURCE_KEY, ArticleKeys.canonical("BBC"))
+                        .append(PublishedAt.FIELD, PublishedAt.resolve("BBC", time, System.currentTimeMillis()));
                 return doc;
             }
         } catch (Exception e) {
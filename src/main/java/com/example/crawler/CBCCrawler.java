@@ -12,6 +12,7 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.example.service.CSVWriter;
+import com.example.utils.ServiceMetrics;
 import com.example.utils.Utils;
 
 public class CBCCrawler {
@@ -51,7 +52,7 @@ public class CBCCrawler {
         try {
             String url = CBC_ROOT + path;
             System.out.println("Crawling CBC: " + sectionName);
-            driver.get(url);
+            ServiceMetrics.timePageLoad("cbc", () -> driver.get(url));
 
             // Wait until at least one article/card appears
             wait.until(ExpectedConditions.presenceOfElementLocated(
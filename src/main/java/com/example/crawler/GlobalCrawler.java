@@ -12,6 +12,7 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.example.service.CSVWriter;
+import com.example.utils.ServiceMetrics;
 
 public class GlobalCrawler {
 
@@ -57,7 +58,7 @@ public class GlobalCrawler {
                             : "https://globalnews.ca/" + section + "/page/" + page + "/");
 
                     System.out.println("\n🌍 Scraping section: " + sectionName + " | Page " + page);
-                    driver.get(url);
+                    ServiceMetrics.timePageLoad("global", () -> driver.get(url));
                     Thread.sleep(2000);
 
                     // ✅ Handle cookie popup
@@ -10,6 +10,7 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.example.service.CSVWriter;
+import com.example.utils.ServiceMetrics;
 import com.example.utils.Utils;
 
 public class GuardianCrawler {
@@ -25,7 +26,7 @@ public class GuardianCrawler {
     
     public void crawl(CSVWriter csvWriter, Set<String> seenUrls) {
         try {
-            driver.get("https://www.theguardian.com/international");
+            ServiceMetrics.timePageLoad("guardian", () -> driver.get("https://www.theguardian.com/international"));
             System.out.println("Accessing The Guardian...");
             dismissCookies();
             
@@ -90,7 +91,7 @@ public class GuardianCrawler {
     
     private void crawlSection(String sectionName, String url, CSVWriter csvWriter, Set<String> seenUrls) {
         try {
-            driver.get(url);
+            ServiceMetrics.timePageLoad("guardian", () -> driver.get(url));
             System.out.println("Crawling Guardian: " + sectionName);
             Utils.sleep(2000);
             
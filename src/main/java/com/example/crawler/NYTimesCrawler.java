@@ -1,6 +1,7 @@
 package com.example.crawler;
 
 import com.example.service.CSVWriter;
+import com.example.utils.ServiceMetrics;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
@@ -65,7 +66,7 @@ public class NYTimesCrawler {
     private void crawlSection(String sectionName, String url, CSVWriter csvWriter, Set<String> seenUrls) {
         try {
             System.out.println("\n🌐 Visiting section: " + sectionName);
-            driver.get(url);
+            ServiceMetrics.timePageLoad("nytimes", () -> driver.get(url));
 
             // Wait until at least one article is present
             wait.until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("section article")));
@@ -0,0 +1,67 @@
+package com.example.db;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.stereotype.Component;
+
+import com.example.utils.ArticleKeys;
+import com.example.utils.PublishedAt;
+import com.example.utils.StoryClusterer;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Ensures the indexes the services rely on exist at startup.
+ * createIndex is idempotent, so this is cheap when they are already there.
+ */
+@Component
+public class IndexBootstrapper {
+
+    @PostConstruct
+    public void ensureIndexes() {
+        MongoDatabase db;
+        try {
+            db = MongoDBConnection.getDatabase();
+        } catch (Exception e) {
+            System.err.println("❌ IndexBootstrapper: MongoDB unavailable, skipping index creation: " + e.getMessage());
+            return;
+        }
+
+        MongoCollection<Document> articles = db.getCollection("articles");
+        ensureIndex(articles, Indexes.ascending("Link"), new IndexOptions().name("link_unique").unique(true));
+        ensureIndex(articles, Indexes.ascending(ArticleKeys.SECTION_KEY), new IndexOptions().name("section_key"));
+        ensureIndex(articles, Indexes.ascending(ArticleKeys.SOURCE_KEY), new IndexOptions().name("source_key"));
+        ensureIndex(articles, Indexes.ascending(StoryClusterer.CLUSTER_FIELD), new IndexOptions().name("story_cluster"));
+        // "Latest" queries, overall and per section, walk these instead of sorting
+        ensureIndex(articles, Indexes.descending(PublishedAt.FIELD), new IndexOptions().name("published_at_desc"));
+        ensureIndex(articles, Indexes.compoundIndex(Indexes.ascending(ArticleKeys.SECTION_KEY), Indexes.descending(PublishedAt.FIELD)),
+                new IndexOptions().name("section_published_at_desc"));
+
+        // Per-user history is always read newest first
+        MongoCollection<Document> interactions = db.getCollection("user_interactions");
+        ensureIndex(interactions, Indexes.compoundIndex(Indexes.ascending("userId"), Indexes.descending("timestamp")),
+                new IndexOptions().name("user_timestamp"));
+
+        // One document per search term; the top-searches summary is seeded by count
+        MongoCollection<Document> searchFrequency = db.getCollection("search_frequency");
+        ensureIndex(searchFrequency, Indexes.ascending("term"),
+                new IndexOptions().name("term_unique").unique(true).partialFilterExpression(Filters.exists("term")));
+        ensureIndex(searchFrequency, Indexes.descending("count"), new IndexOptions().name("count_desc"));
+    }
+
+    private void ensureIndex(MongoCollection<Document> collection, Bson keys, IndexOptions options) {
+        try {
+            collection.createIndex(keys, options);
+            System.out.println("✅ Index ensured: " + collection.getNamespace().getCollectionName() + "." + options.getName());
+        } catch (Exception e) {
+            // e.g. duplicate Links in old data prevent the unique index; keep starting up
+            System.err.println("❌ IndexBootstrapper: could not create index "
+                    + options.getName() + ": " + e.getMessage());
+        }
+    }
+}
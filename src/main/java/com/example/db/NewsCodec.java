@@ -0,0 +1,202 @@
+package com.example.db;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import com.example.model.News;
+import com.example.utils.ArticleKeys;
+import com.example.utils.PublishedAt;
+import com.example.utils.StoryClusterer;
+import com.mongodb.client.model.Projections;
+
+/**
+ * Decodes "articles" documents straight into {@link News}.
+ *
+ * Values are read from the BSON stream without building an intermediate Document,
+ * and the stray surrounding quotes left by the CSV import are stripped in a single
+ * pass instead of with a regex per field.
+ */
+public class NewsCodec implements Codec<News> {
+
+    /**
+     * Fields needed to build a News; use with find(...).projection(...) so nothing else
+     * is sent over the wire.
+     */
+    public static final Bson PROJECTION = Projections.include(
+            "Source", "Section", "Headline", "Description", "Time", "Category", "Link", "ImageLink",
+            ArticleKeys.SECTION_KEY, ArticleKeys.SOURCE_KEY, StoryClusterer.CLUSTER_FIELD, PublishedAt.FIELD);
+
+    @Override
+    public News decode(BsonReader reader, DecoderContext decoderContext) {
+        News news = new News();
+        boolean hasPublishedAt = false;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            switch (name) {
+                case "_id":
+                    news.setId(readId(reader));
+                    break;
+                case "Headline":
+                    news.setTitle(readString(reader));
+                    break;
+                case "Source":
+                    news.setSource(readString(reader));
+                    break;
+                case "Link":
+                    news.setLink(readString(reader));
+                    break;
+                case "Time":
+                    news.setDate(readString(reader));
+                    break;
+                case "Section":
+                    news.setSection(readString(reader));
+                    break;
+                case "ImageLink":
+                    news.setImageLink(readString(reader));
+                    break;
+                case "Description":
+                    news.setDescription(readString(reader));
+                    break;
+                case "Category":
+                    news.setCategory(readString(reader));
+                    break;
+                case ArticleKeys.SECTION_KEY:
+                    news.setSectionKey(readString(reader));
+                    break;
+                case ArticleKeys.SOURCE_KEY:
+                    news.setSourceKey(readString(reader));
+                    break;
+                case StoryClusterer.CLUSTER_FIELD:
+                    news.setStoryClusterId(readString(reader));
+                    break;
+                case PublishedAt.FIELD:
+                    hasPublishedAt = readEpochMillis(reader, news);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        // Documents ingested before the canonical keys existed get them computed on read
+        if (news.getSectionKey() == null) news.setSectionKey(ArticleKeys.canonical(news.getSection()));
+        if (news.getSourceKey() == null) news.setSourceKey(ArticleKeys.canonical(news.getSource()));
+        // ... and publishedAt, with relative times measured from the _id (ingest) time
+        if (!hasPublishedAt) news.setPublishedAt(PublishedAt.resolve(news.getSource(), news.getDate(), ingestTime(news.getId())));
+        return news;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, News news, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (news.getId() != null) {
+            if (ObjectId.isValid(news.getId())) {
+                writer.writeObjectId("_id", new ObjectId(news.getId()));
+            } else {
+                writer.writeString("_id", news.getId());
+            }
+        }
+        writeString(writer, "Source", news.getSource());
+        writeString(writer, "Section", news.getSection());
+        writeString(writer, "Headline", news.getTitle());
+        writeString(writer, "Description", news.getDescription());
+        writeString(writer, "Time", news.getDate());
+        writeString(writer, "Category", news.getCategory());
+        writeString(writer, "Link", news.getLink());
+        writeString(writer, "ImageLink", news.getImageLink());
+        writeString(writer, ArticleKeys.SECTION_KEY, news.getSectionKey());
+        writeString(writer, ArticleKeys.SOURCE_KEY, news.getSourceKey());
+        writeString(writer, StoryClusterer.CLUSTER_FIELD, news.getStoryClusterId());
+        writer.writeInt64(PublishedAt.FIELD, news.getPublishedAt());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<News> getEncoderClass() {
+        return News.class;
+    }
+
+    /**
+     * Remove one leading and one trailing double quote, then surrounding whitespace.
+     * Equivalent to value.replaceAll("^\"|\"$", "").trim() without the regex.
+     */
+    public static String stripQuotes(String value) {
+        if (value == null) return null;
+        int start = 0;
+        int end = value.length();
+        if (end > 0 && value.charAt(0) == '"') start++;
+        if (end > start && value.charAt(end - 1) == '"') end--;
+        while (start < end && value.charAt(start) <= ' ') start++;
+        while (end > start && value.charAt(end - 1) <= ' ') end--;
+        return (start == 0 && end == value.length()) ? value : value.substring(start, end);
+    }
+
+    /**
+     * Ingest time of an article: the timestamp of its ObjectId, or now for other ids.
+     */
+    public static long ingestTime(String id) {
+        return id != null && ObjectId.isValid(id) ? new ObjectId(id).getTimestamp() * 1000L : System.currentTimeMillis();
+    }
+
+    // publishedAt is written as int64 but tolerate dates and int32; false if absent
+    private static boolean readEpochMillis(BsonReader reader, News news) {
+        switch (reader.getCurrentBsonType()) {
+            case INT64:
+                news.setPublishedAt(reader.readInt64());
+                return true;
+            case INT32:
+                news.setPublishedAt(reader.readInt32());
+                return true;
+            case DATE_TIME:
+                news.setPublishedAt(reader.readDateTime());
+                return true;
+            default:
+                reader.skipValue();
+                return false;
+        }
+    }
+
+    private static String readId(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.OBJECT_ID) {
+            return reader.readObjectId().toHexString();
+        }
+        return readString(reader);
+    }
+
+    // Mirrors the old Object.toString() fallback for the scalar types that show up in imported data
+    private static String readString(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case STRING:
+                return stripQuotes(reader.readString());
+            case INT32:
+                return Integer.toString(reader.readInt32());
+            case INT64:
+                return Long.toString(reader.readInt64());
+            case DOUBLE:
+                return Double.toString(reader.readDouble());
+            case BOOLEAN:
+                return Boolean.toString(reader.readBoolean());
+            case NULL:
+                reader.readNull();
+                return null;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private static void writeString(BsonWriter writer, String name, String value) {
+        if (value == null) {
+            writer.writeNull(name);
+        } else {
+            writer.writeString(name, value);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.model;
 
 import org.springframework.data.annotation.Id;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class News {
 
     @Id
@@ -16,6 +18,34 @@ public class News {
     private String category;    // Category
 
     private double score;       // Word frequency score for ranking
+    private String storyClusterId; // storyClusterId (near-duplicate group, see StoryClusterer)
+    private long publishedAt;   // publishedAt (epoch millis parsed from Time, see PublishedAt)
+
+    @JsonIgnore
+    private String sectionKey;  // sectionKey (canonical Section, see ArticleKeys)
+    @JsonIgnore
+    private String sourceKey;   // sourceKey (canonical Source)
+
+    public News() {
+    }
+
+    // Copy constructor: catalog articles are shared, so callers that set a score work on a copy
+    public News(News other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.source = other.source;
+        this.link = other.link;
+        this.date = other.date;
+        this.section = other.section;
+        this.imageLink = other.imageLink;
+        this.description = other.description;
+        this.category = other.category;
+        this.score = other.score;
+        this.sectionKey = other.sectionKey;
+        this.sourceKey = other.sourceKey;
+        this.storyClusterId = other.storyClusterId;
+        this.publishedAt = other.publishedAt;
+    }
 
     // Getters and setters
     public String getId() { return id; }
@@ -47,4 +77,16 @@ public class News {
 
     public double getScore() { return score; }
     public void setScore(double score) { this.score = score; }
+
+    public String getSectionKey() { return sectionKey; }
+    public void setSectionKey(String sectionKey) { this.sectionKey = sectionKey; }
+
+    public String getSourceKey() { return sourceKey; }
+    public void setSourceKey(String sourceKey) { this.sourceKey = sourceKey; }
+
+    public String getStoryClusterId() { return storyClusterId; }
+    public void setStoryClusterId(String storyClusterId) { this.storyClusterId = storyClusterId; }
+
+    public long getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(long publishedAt) { this.publishedAt = publishedAt; }
 }
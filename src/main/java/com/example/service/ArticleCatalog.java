@@ -0,0 +1,266 @@
+package com.example.service;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.db.MongoDBConnection;
+import com.example.db.NewsCodec;
+import com.example.model.News;
+import com.example.utils.SimHash;
+import com.example.utils.StoryClusterer;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory catalog of the "articles" collection.
+ *
+ * The corpus is loaded once at startup and then refreshed incrementally by
+ * polling for documents with an _id greater than the last one seen. Readers
+ * always get an immutable, versioned {@link Snapshot}; a refresh publishes a
+ * new snapshot instead of mutating the current one.
+ */
+@Service
+public class ArticleCatalog {
+
+    /**
+     * Callback for components that keep derived state (indexes, feeds) in sync
+     * with the catalog.
+     */
+    public interface Listener {
+        /**
+         * Called with each new snapshot before it is published, so that once
+         * {@link #snapshot()} reports a version (which the controllers put in their ETags)
+         * every listener has already applied it. Use the snapshot passed in, not
+         * {@link #snapshot()}, which still returns the previous one during the call.
+         *
+         * @param added    articles added since the previous snapshot (all articles on first load)
+         * @param snapshot the snapshot that now contains them
+         */
+        void onArticlesAdded(List<News> added, Snapshot snapshot);
+    }
+
+    /**
+     * Immutable view of the corpus at a given version.
+     * Articles are ordered by _id ascending, i.e. in ingest order; {@link #getByRecency}
+     * is a second ordering by publishedAt, newest first.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final List<News> articles;
+        // Catalog indexes by publishedAt descending, later ingest first on ties
+        private final int[] recencyOrder;
+
+        Snapshot(long version, List<News> articles, int[] recencyOrder) {
+            this.version = version;
+            this.articles = Collections.unmodifiableList(articles);
+            this.recencyOrder = recencyOrder;
+        }
+
+        public long getVersion() { return version; }
+
+        public List<News> getArticles() { return articles; }
+
+        public int size() { return articles.size(); }
+
+        public boolean isEmpty() { return articles.isEmpty(); }
+
+        /**
+         * Articles by publishedAt, newest first, as a view; no sorting per call.
+         */
+        public List<News> getByRecency() {
+            return new AbstractList<News>() {
+                @Override
+                public News get(int index) {
+                    return articles.get(recencyOrder[index]);
+                }
+
+                @Override
+                public int size() {
+                    return recencyOrder.length;
+                }
+            };
+        }
+
+        /**
+         * Binary search for an article id in _id order.
+         *
+         * @return the index of the article, or -(insertion point) - 1 if absent
+         */
+        public int indexOf(String id) {
+            int low = 0;
+            int high = articles.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareIds(articles.get(mid).getId(), id);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        // ObjectId hex strings have a fixed width, so length-then-lexicographic matches _id order
+        private static int compareIds(String a, String b) {
+            if (a == null || b == null) return a == null ? (b == null ? 0 : -1) : 1;
+            if (a.length() != b.length()) return Integer.compare(a.length(), b.length());
+            return a.compareTo(b);
+        }
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(0, new ArrayList<>(), new int[0]);
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Snapshot snapshot = EMPTY;
+    private Object lastSeenId;
+
+    // Guarded by this; sees every article in ingest order, like the uploader's clusterer
+    private final StoryClusterer clusterer = new StoryClusterer();
+
+    @PostConstruct
+    private void initAfterConstruct() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            System.err.println("❌ ArticleCatalog: failed to load articles at startup: " + e.getMessage());
+            // Keep serving an empty catalog; the next poll will retry.
+        }
+    }
+
+    /**
+     * Current snapshot of the corpus. Never null.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Register a listener. It is immediately replayed the current snapshot so that
+     * components created after the initial load start out consistent.
+     */
+    public synchronized void addListener(Listener listener) {
+        listeners.add(listener);
+        Snapshot current = snapshot;
+        if (!current.isEmpty()) {
+            listener.onArticlesAdded(current.getArticles(), current);
+        }
+    }
+
+    /**
+     * Poll MongoDB for articles inserted since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${catalog.refresh-interval-ms:30000}",
+               initialDelayString = "${catalog.refresh-interval-ms:30000}")
+    public void poll() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            System.err.println("❌ ArticleCatalog: refresh failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Load new articles and publish a new snapshot if anything changed.
+     *
+     * @return number of articles added
+     */
+    public synchronized int refresh() {
+        MongoCollection<News> collection = MongoDBConnection.getDatabase().getCollection("articles", News.class);
+
+        Bson filter = lastSeenId == null ? new Document() : Filters.gt("_id", lastSeenId);
+        List<News> added = new ArrayList<>();
+        String newestId = null;
+
+        // NewsCodec decodes straight from BSON; the projection keeps unused fields off the wire
+        try (MongoCursor<News> cursor = collection.find(filter)
+                .projection(NewsCodec.PROJECTION)
+                .sort(Sorts.ascending("_id"))
+                .iterator()) {
+            while (cursor.hasNext()) {
+                News news = cursor.next();
+                newestId = news.getId();
+                // Articles ingested before clustering existed are clustered here, in memory, to
+                // the same ids the uploader derives for them
+                long fingerprint = SimHash.fingerprint(news.getTitle(), news.getDescription());
+                news.setStoryClusterId(clusterer.assign(fingerprint, news.getStoryClusterId(), news.getId()));
+                added.add(news);
+            }
+        }
+
+        if (added.isEmpty()) {
+            return 0;
+        }
+
+        Snapshot previous = snapshot;
+        List<News> articles = new ArrayList<>(previous.size() + added.size());
+        articles.addAll(previous.getArticles());
+        articles.addAll(added);
+
+        Snapshot next = new Snapshot(previous.getVersion() + 1, articles, mergeRecencyOrder(previous, articles));
+        lastSeenId = ObjectId.isValid(newestId) ? new ObjectId(newestId) : newestId;
+
+        // Derived state first, then the version: a response built in between carries the
+        // old ETag (refetched later), never the new ETag over an old body (cached as current)
+        List<News> addedView = Collections.unmodifiableList(added);
+        for (Listener listener : listeners) {
+            try {
+                listener.onArticlesAdded(addedView, next);
+            } catch (Exception e) {
+                System.err.println("❌ ArticleCatalog: listener failed: " + e.getMessage());
+            }
+        }
+        snapshot = next;
+
+        System.out.println("📚 ArticleCatalog: +" + added.size() + " articles (total " + next.size()
+                + ", version " + next.getVersion() + ")");
+        return added.size();
+    }
+
+    /**
+     * Recency order of the new article list: only the added articles are sorted, then
+     * merged into the previous snapshot's order.
+     */
+    private static int[] mergeRecencyOrder(Snapshot previous, List<News> articles) {
+        int oldCount = previous.size();
+        Integer[] added = new Integer[articles.size() - oldCount];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = oldCount + i;
+        }
+        Arrays.sort(added, (a, b) -> newerFirst(articles, a, b));
+
+        int[] merged = new int[articles.size()];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            if (j == added.length || (i < oldCount && newerFirst(articles, previous.recencyOrder[i], added[j]) < 0)) {
+                merged[k] = previous.recencyOrder[i++];
+            } else {
+                merged[k] = added[j++];
+            }
+        }
+        return merged;
+    }
+
+    private static int newerFirst(List<News> articles, int a, int b) {
+        int cmp = Long.compare(articles.get(b).getPublishedAt(), articles.get(a).getPublishedAt());
+        return cmp != 0 ? cmp : Integer.compare(b, a);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+
+import com.example.db.MongoDBConnection;
+import com.example.db.NewsCodec;
+import com.example.utils.ArticleKeys;
+import com.example.utils.PublishedAt;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+
+/**
+ * One-off migration: backfill sectionKey/sourceKey and publishedAt on articles
+ * ingested before they were written by the crawlers and CSVtoMongoUploader.
+ * Relative times ("2 hours ago") are measured from the _id timestamp.
+ * Safe to re-run; only documents missing a field are touched.
+ */
+public class ArticleKeyMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    public static void main(String[] args) {
+        System.out.println("Starting ArticleKeyMigration...");
+        MongoDatabase db = MongoDBConnection.getDatabase();
+        MongoCollection<Document> coll = db.getCollection("articles");
+
+        List<WriteModel<Document>> batch = new ArrayList<>();
+        int updated = 0;
+
+        for (Document doc : coll.find(Filters.or(
+                        Filters.exists(ArticleKeys.SECTION_KEY, false),
+                        Filters.exists(ArticleKeys.SOURCE_KEY, false),
+                        Filters.exists(PublishedAt.FIELD, false)))
+                .projection(Projections.include("Section", "Source", "Time"))) {
+
+            String id = doc.get("_id").toString();
+            long publishedAt = PublishedAt.resolve(stringValue(doc, "Source"), stringValue(doc, "Time"), NewsCodec.ingestTime(id));
+
+            batch.add(new UpdateOneModel<>(
+                    Filters.eq("_id", doc.get("_id")),
+                    Updates.combine(
+                            Updates.set(ArticleKeys.SECTION_KEY, ArticleKeys.canonical(stringValue(doc, "Section"))),
+                            Updates.set(ArticleKeys.SOURCE_KEY, ArticleKeys.canonical(stringValue(doc, "Source"))),
+                            Updates.set(PublishedAt.FIELD, publishedAt))));
+
+            if (batch.size() >= BATCH_SIZE) {
+                updated += coll.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                batch.clear();
+                System.out.println("Migrated " + updated + " documents...");
+            }
+        }
+        if (!batch.isEmpty()) {
+            updated += coll.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+
+        System.out.println("ArticleKeyMigration finished. Documents updated: " + updated);
+        MongoDBConnection.close();
+    }
+
+    private static String stringValue(Document doc, String key) {
+        Object o = doc.get(key);
+        return o == null ? null : o.toString();
+    }
+}
@@ -0,0 +1,528 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.model.News;
+import com.example.utils.Tokenizer;
+import com.example.utils.TopK;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-process inverted index over article Headline and Description.
+ *
+ * Each term maps to a postings list of (document, headline tf, description tf, positions).
+ * Documents are numbered in catalog order, so postings stay sorted by appending and the
+ * index is updated incrementally whenever the {@link ArticleCatalog} ingests new articles.
+ *
+ * Queries are conjunctive: every term and every "quoted phrase" must match. Matching
+ * documents are ranked with BM25, with headline occurrences weighted like the 3x title
+ * weighting used by the TF-IDF ranking.
+ *
+ * {@link #topK} answers disjunctive topic queries (any term may match) with MaxScore
+ * early termination, so only documents that can still enter the top k are scored.
+ */
+@Service
+public class ArticleSearchIndex implements ArticleCatalog.Listener {
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // A headline occurrence counts as much as three description occurrences
+    private static final int TITLE_BOOST = 3;
+
+    // Position gap between headline and description so phrases never span both fields
+    private static final int FIELD_GAP = 1000;
+
+    @Autowired
+    private ArticleCatalog articleCatalog;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> dictionary = new HashMap<>();
+    private final List<News> documents = new ArrayList<>();
+    private int[] docLengths = new int[1024];
+    private long totalLength;
+
+    @PostConstruct
+    private void register() {
+        articleCatalog.addListener(this);
+    }
+
+    @Override
+    public void onArticlesAdded(List<News> added, ArticleCatalog.Snapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            for (News news : added) {
+                addDocument(news);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search the index.
+     *
+     * @param query   free text; double-quoted parts are matched as phrases
+     * @param section optional canonical section key (see ArticleKeys), null for all sections
+     * @param offset  number of ranked results to skip
+     * @param limit   maximum number of results to return
+     * @return matching articles ordered by BM25 score, best first
+     */
+    public List<News> search(String query, String section, int offset, int limit) {
+        return search(query, section, offset, limit, false);
+    }
+
+    /**
+     * Same as {@link #search(String, String, int, int)}, optionally ordered by
+     * publishedAt, newest first, instead of by score.
+     */
+    public List<News> search(String query, String section, int offset, int limit, boolean newestFirst) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<ScoredDoc> matches = match(query, section);
+            int m = matches.size();
+            int from = Math.max(offset, 0);
+            if (from >= m) {
+                return Collections.emptyList();
+            }
+
+            // Only the best offset + limit are selected, not all matches sorted. Items are the
+            // matches in reverse doc order, so TopK's lower-index-first ties put newer articles first.
+            int k = (int) Math.min((long) from + limit, m);
+            int[] best = TopK.select(m, k, newestFirst
+                    ? i -> documents.get(matches.get(m - 1 - i).doc).getPublishedAt()
+                    : i -> matches.get(m - 1 - i).score);
+
+            List<News> page = new ArrayList<>(best.length - from);
+            for (int i = from; i < best.length; i++) {
+                page.add(documents.get(matches.get(m - 1 - best[i]).doc));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of articles matching a query, using the same semantics as {@link #search}.
+     */
+    public int count(String query, String section) {
+        lock.readLock().lock();
+        try {
+            return match(query, section).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller must hold the read lock
+    private List<ScoredDoc> match(String query, String section) {
+        List<List<String>> phrases = new ArrayList<>();
+        List<String> terms = new ArrayList<>();
+        parseQuery(query, terms, phrases);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<PostingList> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            PostingList postings = dictionary.get(term);
+            if (postings == null) {
+                return new ArrayList<>();
+            }
+            lists.add(postings);
+        }
+
+        int n = documents.size();
+        double avgLength = n == 0 ? 0 : (double) totalLength / n;
+        double[] idf = new double[lists.size()];
+        for (int i = 0; i < lists.size(); i++) {
+            int df = lists.get(i).size;
+            idf[i] = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        }
+
+        // Drive the intersection from the rarest term
+        int driver = 0;
+        for (int i = 1; i < lists.size(); i++) {
+            if (lists.get(i).size < lists.get(driver).size) driver = i;
+        }
+
+        List<ScoredDoc> matches = new ArrayList<>();
+        int[] cursor = new int[lists.size()];
+        PostingList driverList = lists.get(driver);
+
+        candidates:
+        for (int p = 0; p < driverList.size; p++) {
+            int doc = driverList.docs[p];
+            for (int i = 0; i < lists.size(); i++) {
+                if (i == driver) {
+                    cursor[i] = p;
+                    continue;
+                }
+                int idx = lists.get(i).find(doc, cursor[i]);
+                if (idx < 0) {
+                    cursor[i] = -idx - 1;
+                    continue candidates;
+                }
+                cursor[i] = idx;
+            }
+
+            News news = documents.get(doc);
+            if (section != null && !section.equals(news.getSectionKey())) {
+                continue;
+            }
+            if (!matchesPhrases(doc, phrases)) {
+                continue;
+            }
+
+            double score = 0;
+            double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+            for (int i = 0; i < lists.size(); i++) {
+                PostingList list = lists.get(i);
+                int tf = TITLE_BOOST * list.titleTf[cursor[i]] + list.descTf[cursor[i]];
+                score += idf[i] * (tf * (K1 + 1)) / (tf + norm);
+            }
+            matches.add(new ScoredDoc(doc, score));
+        }
+        return matches;
+    }
+
+    /**
+     * Top k articles for a topic query, by BM25 over all query terms (any term may match).
+     *
+     * Uses MaxScore: terms are ordered by their score upper bound, and the low-bound
+     * terms whose bounds together cannot beat the current k-th score are "non-essential".
+     * Only documents in an essential term's postings become candidates, and a candidate
+     * is dropped as soon as its partial score plus the remaining bounds falls below the
+     * k-th score, so most of the corpus is never scored.
+     *
+     * @param query   free text; quotes are ignored
+     * @param section optional canonical section key (see ArticleKeys), null for all sections
+     * @param k       number of results
+     * @return copies of the best articles with their BM25 score set, best first
+     */
+    public List<News> topK(String query, String section, int k) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<String> terms = new ArrayList<>();
+            parseQuery(query, terms, new ArrayList<>());
+
+            List<TermCursor> cursors = new ArrayList<>();
+            int n = documents.size();
+            double avgLength = n == 0 ? 0 : (double) totalLength / n;
+            for (String term : terms) {
+                PostingList postings = dictionary.get(term);
+                if (postings != null) {
+                    cursors.add(new TermCursor(postings, n, avgLength));
+                }
+            }
+            if (cursors.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            // Ascending upper bound; prefixBound[i] = sum of bounds of terms 0..i-1
+            cursors.sort((a, b) -> Double.compare(a.upperBound, b.upperBound));
+            double[] prefixBound = new double[cursors.size() + 1];
+            for (int i = 0; i < cursors.size(); i++) {
+                prefixBound[i + 1] = prefixBound[i] + cursors.get(i).upperBound;
+            }
+
+            // Min-heap of the best k so far; its head is the score to beat
+            PriorityQueue<ScoredDoc> heap = new PriorityQueue<>(k, ScoredDoc::compareTo);
+            double threshold = 0;
+            int firstEssential = 0;
+
+            while (true) {
+                // Next candidate: smallest current doc among essential terms
+                int doc = Integer.MAX_VALUE;
+                for (int i = firstEssential; i < cursors.size(); i++) {
+                    doc = Math.min(doc, cursors.get(i).doc());
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                double score = 0;
+                for (int i = firstEssential; i < cursors.size(); i++) {
+                    TermCursor cursor = cursors.get(i);
+                    if (cursor.doc() == doc) {
+                        score += cursor.score(norm);
+                        cursor.next();
+                    }
+                }
+
+                if (section != null && !section.equals(documents.get(doc).getSectionKey())) {
+                    continue;
+                }
+
+                // Non-essential terms, highest bound first, while the doc can still qualify
+                for (int i = firstEssential - 1; i >= 0; i--) {
+                    if (heap.size() == k && score + prefixBound[i + 1] < threshold) {
+                        break;
+                    }
+                    TermCursor cursor = cursors.get(i);
+                    if (cursor.advanceTo(doc)) {
+                        score += cursor.score(norm);
+                    }
+                }
+
+                ScoredDoc candidate = new ScoredDoc(doc, score);
+                if (heap.size() < k) {
+                    heap.add(candidate);
+                } else if (candidate.compareTo(heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                } else {
+                    continue;
+                }
+
+                if (heap.size() == k) {
+                    threshold = heap.peek().score;
+                    while (firstEssential < cursors.size() && prefixBound[firstEssential + 1] < threshold) {
+                        firstEssential++;
+                    }
+                }
+            }
+
+            List<ScoredDoc> best = new ArrayList<>(heap);
+            best.sort((a, b) -> b.compareTo(a));
+            List<News> results = new ArrayList<>(best.size());
+            for (ScoredDoc scored : best) {
+                // Catalog articles are shared; the query score goes on a copy
+                News news = new News(documents.get(scored.doc));
+                news.setScore(scored.score);
+                results.add(news);
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed articles.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- indexing ----
+
+    private void addDocument(News news) {
+        int doc = documents.size();
+        documents.add(news);
+
+        Map<String, int[]> titleCounts = new HashMap<>();
+        Map<String, List<Integer>> positions = new HashMap<>();
+
+        List<String> titleTokens = tokenize(news.getTitle());
+        List<String> descTokens = tokenize(news.getDescription());
+
+        for (int i = 0; i < titleTokens.size(); i++) {
+            String term = titleTokens.get(i);
+            titleCounts.computeIfAbsent(term, t -> new int[1])[0]++;
+            positions.computeIfAbsent(term, t -> new ArrayList<>()).add(i);
+        }
+        for (int i = 0; i < descTokens.size(); i++) {
+            positions.computeIfAbsent(descTokens.get(i), t -> new ArrayList<>()).add(FIELD_GAP + i);
+        }
+
+        int length = TITLE_BOOST * titleTokens.size() + descTokens.size();
+        for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+            int[] titleTf = titleCounts.get(entry.getKey());
+            int tTf = titleTf == null ? 0 : titleTf[0];
+            List<Integer> pos = entry.getValue();
+            dictionary.computeIfAbsent(entry.getKey(), t -> new PostingList())
+                    .add(doc, tTf, pos.size() - tTf, pos, length);
+        }
+
+        if (doc == docLengths.length) {
+            docLengths = Arrays.copyOf(docLengths, docLengths.length * 2);
+        }
+        docLengths[doc] = length;
+        totalLength += length;
+    }
+
+    private boolean matchesPhrases(int doc, List<List<String>> phrases) {
+        for (List<String> phrase : phrases) {
+            if (!matchesPhrase(doc, phrase)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesPhrase(int doc, List<String> phrase) {
+        int[][] positions = new int[phrase.size()][];
+        for (int i = 0; i < phrase.size(); i++) {
+            PostingList list = dictionary.get(phrase.get(i));
+            int idx = list == null ? -1 : list.find(doc, 0);
+            if (idx < 0) {
+                return false;
+            }
+            positions[i] = list.positions(idx);
+        }
+        for (int start : positions[0]) {
+            boolean all = true;
+            for (int i = 1; i < positions.length && all; i++) {
+                all = Arrays.binarySearch(positions[i], start + i) >= 0;
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ---- query parsing / tokenization ----
+
+    private void parseQuery(String query, List<String> terms, List<List<String>> phrases) {
+        if (query == null) {
+            return;
+        }
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            List<String> tokens = tokenize(parts[i]);
+            for (String token : tokens) {
+                if (!terms.contains(token)) terms.add(token);
+            }
+            // Odd parts were inside quotes
+            if (i % 2 == 1 && tokens.size() > 1) {
+                phrases.add(tokens);
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        return Tokenizer.ALL.tokens(text);
+    }
+
+    /**
+     * Append-only postings list stored in parallel primitive arrays.
+     */
+    private static final class PostingList {
+        int size;
+        int[] docs = new int[4];
+        int[] titleTf = new int[4];
+        int[] descTf = new int[4];
+        int[] positionStart = new int[5];
+        int[] positionData = new int[8];
+
+        // Largest boosted tf and shortest document in the list, for BM25 upper bounds
+        int maxTf;
+        int minLength = Integer.MAX_VALUE;
+
+        void add(int doc, int tTf, int dTf, List<Integer> pos, int length) {
+            if (size == docs.length) {
+                int capacity = size * 2;
+                docs = Arrays.copyOf(docs, capacity);
+                titleTf = Arrays.copyOf(titleTf, capacity);
+                descTf = Arrays.copyOf(descTf, capacity);
+                positionStart = Arrays.copyOf(positionStart, capacity + 1);
+            }
+            int from = positionStart[size];
+            if (from + pos.size() > positionData.length) {
+                positionData = Arrays.copyOf(positionData, Math.max(positionData.length * 2, from + pos.size()));
+            }
+            for (int i = 0; i < pos.size(); i++) {
+                positionData[from + i] = pos.get(i);
+            }
+            docs[size] = doc;
+            titleTf[size] = tTf;
+            descTf[size] = dTf;
+            positionStart[size + 1] = from + pos.size();
+            size++;
+            maxTf = Math.max(maxTf, TITLE_BOOST * tTf + dTf);
+            minLength = Math.min(minLength, length);
+        }
+
+        /** Index of doc in this list at or after from, or -(insertion point) - 1. */
+        int find(int doc, int from) {
+            return Arrays.binarySearch(docs, Math.min(from, size), size, doc);
+        }
+
+        int[] positions(int idx) {
+            return Arrays.copyOfRange(positionData, positionStart[idx], positionStart[idx + 1]);
+        }
+    }
+
+    /**
+     * Iterator over one term's postings during a top-k query.
+     */
+    private static final class TermCursor {
+        final PostingList list;
+        final double idf;
+        final double upperBound;
+        int pos;
+
+        TermCursor(PostingList list, int n, double avgLength) {
+            this.list = list;
+            this.idf = Math.log(1 + (n - list.size + 0.5) / (list.size + 0.5));
+            // BM25 grows with tf and shrinks with document length
+            double minNorm = K1 * (1 - B + B * list.minLength / avgLength);
+            this.upperBound = idf * (list.maxTf * (K1 + 1)) / (list.maxTf + minNorm);
+        }
+
+        int doc() {
+            return pos < list.size ? list.docs[pos] : Integer.MAX_VALUE;
+        }
+
+        void next() {
+            pos++;
+        }
+
+        /** Move to the first posting at or after doc; true if doc itself is present. */
+        boolean advanceTo(int doc) {
+            int idx = list.find(doc, pos);
+            pos = idx >= 0 ? idx : -idx - 1;
+            return idx >= 0;
+        }
+
+        double score(double norm) {
+            int tf = TITLE_BOOST * list.titleTf[pos] + list.descTf[pos];
+            return idf * (tf * (K1 + 1)) / (tf + norm);
+        }
+    }
+
+    private static final class ScoredDoc implements Comparable<ScoredDoc> {
+        final int doc;
+        final double score;
+
+        ScoredDoc(int doc, double score) {
+            this.doc = doc;
+            this.score = score;
+        }
+
+        // Higher score is better; newer articles win ties
+        @Override
+        public int compareTo(ScoredDoc other) {
+            return score != other.score ? Double.compare(score, other.score) : Integer.compare(doc, other.doc);
+        }
+    }
+}
@@ -8,12 +8,20 @@ import java.util.List;
 import java.util.ArrayList;
 
 import org.bson.Document;
+import org.bson.types.ObjectId;
 
 import com.example.db.MongoDBConnection;
+import com.example.utils.ArticleKeys;
+import com.example.utils.PublishedAt;
+import com.example.utils.SimHash;
+import com.example.utils.StoryClusterer;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.UpdateResult;
 
 public class CSVtoMongoUploader {
 
@@ -38,6 +46,9 @@ public class CSVtoMongoUploader {
             long initialCount = collection.countDocuments();
             System.out.println("📊 Initial document count in DB: " + initialCount);
 
+            StoryClusterer clusterer = loadClusterer(collection);
+            System.out.println("🧩 Story fingerprints loaded: " + clusterer.size());
+
             int lineNumber = 0;
             int skippedInvalid = 0;
             int skippedDuplicate = 0;
@@ -69,21 +80,42 @@ public class CSVtoMongoUploader {
                     //     continue;
                     // }
 
-                    Document doc = new Document("Source", data[0])
+                    ObjectId id = new ObjectId();
+                    Document doc = new Document("_id", id)
+                            .append("Source", data[0])
                             .append("Section", data[1])
                             .append("Headline", data[2])
                             .append("Description", data[3])
                             .append("Time", data[4])
                             .append("Category", data[5])
                             .append("Link", url)
-                            .append("ImageLink", data[7]);
+                            .append("ImageLink", data[7])
+                            .append(ArticleKeys.SECTION_KEY, ArticleKeys.canonical(data[1]))
+                            .append(ArticleKeys.SOURCE_KEY, ArticleKeys.canonical(data[0]))
+                            .append(PublishedAt.FIELD, PublishedAt.resolve(data[0], data[4], System.currentTimeMillis()));
+
+                    // Near-duplicates of an article already seen join its story cluster; any
+                    // other article starts one named after its own _id
+                    long fingerprint = SimHash.fingerprint(data[2], data[3]);
+                    String clusterId = clusterer.lookup(fingerprint);
+                    if (clusterId == null) {
+                        clusterId = id.toHexString();
+                    }
+                    doc.append(StoryClusterer.SIMHASH_FIELD, fingerprint)
+                            .append(StoryClusterer.CLUSTER_FIELD, clusterId);
 
                     // Upsert to MongoDB (insert if not exists)
-                    collection.updateOne(
+                    UpdateResult result = collection.updateOne(
                             Filters.eq("Link", url),
                             new Document("$setOnInsert", doc),
                             new UpdateOptions().upsert(true)
                     );
+                    if (result.getUpsertedId() == null) {
+                        skippedDuplicate++; // already stored under this Link; nothing was written
+                        seenUrls.add(url);
+                        continue;
+                    }
+                    clusterer.assign(fingerprint, clusterId, null);
                     
                     inserted++;
                     
@@ -121,6 +153,26 @@ public class CSVtoMongoUploader {
         }
     }
 
+    /**
+     * Seed a clusterer with the articles already stored, in ingest order. Articles from
+     * before clustering existed have no fingerprint or cluster yet: the fingerprint is
+     * computed from their text and the cluster derived from _id order, as ArticleCatalog does.
+     */
+    private static StoryClusterer loadClusterer(MongoCollection<Document> collection) {
+        StoryClusterer clusterer = new StoryClusterer();
+        for (Document doc : collection.find()
+                .projection(Projections.include("Headline", "Description",
+                        StoryClusterer.SIMHASH_FIELD, StoryClusterer.CLUSTER_FIELD))
+                .sort(Sorts.ascending("_id"))) {
+            Long fingerprint = doc.getLong(StoryClusterer.SIMHASH_FIELD);
+            if (fingerprint == null) {
+                fingerprint = SimHash.fingerprint(doc.getString("Headline"), doc.getString("Description"));
+            }
+            clusterer.assign(fingerprint, doc.getString(StoryClusterer.CLUSTER_FIELD), doc.get("_id").toString());
+        }
+        return clusterer;
+    }
+
     /**
      * Parse a CSV line into fields, handling quoted fields containing commas.
      * This is a lightweight parser sufficient for the CSVWriter format used in this project.
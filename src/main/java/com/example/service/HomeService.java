@@ -1,137 +1,141 @@
 package com.example.service;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
-import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import com.mongodb.MongoTimeoutException;
 
-import com.example.db.MongoDBConnection;
 import com.example.model.News;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoCursor;
-import com.mongodb.client.MongoDatabase;
-
+import com.example.utils.ArticleKeys;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Materialized /api/home feed.
+ *
+ * Keeps the newest N articles (by publishedAt) per configured section in bounded
+ * buckets, one article per story cluster, updated incrementally as the
+ * {@link ArticleCatalog} ingests articles. Requests are served
+ * from a prebuilt immutable map, so their cost does not depend on corpus size.
+ */
 @Service
-public class HomeService {
-
-    // Allowed sections (case-insensitive)
-    private static final List<String> ALLOWED_SECTIONS = Arrays.asList(
-        "Top Stories",
-        "MORE TO EXPLORE",
-        "MOST WATCHED",
-        "Technology",
-        "politics",
-        "TRENDING"
-    );
+public class HomeService implements ArticleCatalog.Listener {
 
-    public Map<String, List<News>> getNewsGroupedBySection() {
-        MongoDatabase db = null;
-        MongoCollection<Document> collection = null;
-        try {
-            db = MongoDBConnection.getDatabase();
-            collection = db.getCollection("articles");
-        } catch (MongoTimeoutException mte) {
-            System.err.println("❌ HomeService: MongoDB timeout while obtaining collection: " + mte.getMessage());
-            // Return empty grouped map so the controller can respond gracefully
-            Map<String, List<News>> groupedNews = new LinkedHashMap<>();
-            for (String section : ALLOWED_SECTIONS) {
-                groupedNews.put(section, new ArrayList<>());
-            }
-            return groupedNews;
-        } catch (Exception e) {
-            System.err.println("❌ HomeService: error obtaining MongoDB collection: " + e.getMessage());
-            Map<String, List<News>> groupedNews = new LinkedHashMap<>();
-            for (String section : ALLOWED_SECTIONS) {
-                groupedNews.put(section, new ArrayList<>());
+    // Sections shown on the home page, in display order (matched case-insensitively)
+    @Value("${home.sections:Top Stories,MORE TO EXPLORE,MOST WATCHED,Technology,politics,TRENDING}")
+    private List<String> sections;
+
+    // Articles kept per section
+    @Value("${home.section-limit:50}")
+    private int sectionLimit;
+
+    @Autowired
+    private ArticleCatalog articleCatalog;
+
+    // Display names in order, and canonical section key -> display name
+    private final List<String> sectionNames = new ArrayList<>();
+    private final Map<String, String> sectionByKey = new HashMap<>();
+
+    // Newest publishedAt first, later ingest first on ties; guarded by this
+    private final Map<String, List<News>> buckets = new HashMap<>();
+
+    private volatile Map<String, List<News>> feed = Collections.emptyMap();
+
+    @PostConstruct
+    private void register() {
+        for (String section : sections) {
+            String name = section.trim();
+            if (name.isEmpty() || sectionByKey.containsKey(ArticleKeys.canonical(name))) {
+                continue;
             }
-            return groupedNews;
+            sectionNames.add(name);
+            sectionByKey.put(ArticleKeys.canonical(name), name);
+            buckets.put(name, new ArrayList<>());
         }
+        publish();
+        articleCatalog.addListener(this);
+    }
 
-        // Initialize map with all allowed sections in order
-        Map<String, List<News>> groupedNews = new LinkedHashMap<>();
-        for (String section : ALLOWED_SECTIONS) {
-            groupedNews.put(section, new ArrayList<>());
+    @Override
+    public synchronized void onArticlesAdded(List<News> added, ArticleCatalog.Snapshot snapshot) {
+        boolean changed = false;
+        // Added articles arrive in ingest order, not publishedAt order. A full load or replay
+        // walks the catalog's recency order instead, so each article lands at the end of its
+        // bucket or is skipped once the bucket is full.
+        boolean fullLoad = snapshot != null && added.size() == snapshot.size();
+        for (News article : fullLoad ? snapshot.getByRecency() : added) {
+            String matchedSection = sectionByKey.get(article.getSectionKey());
+            if (matchedSection != null) {
+                changed |= insert(buckets.get(matchedSection), article, matchedSection);
+            }
+        }
+        if (changed) {
+            publish();
         }
+    }
 
-        try (MongoCursor<Document> cursor = collection.find().iterator()) {
-            while (cursor.hasNext()) {
-                Document doc = cursor.next();
-                String section = trimQuotes(doc.getString("Section"));
-
-                // Check if section matches any allowed section (case-insensitive)
-                if (section != null) {
-                    String matchedSection = findMatchingSection(section);
-
-                    if (matchedSection != null) {
-                            News news = new News();
-
-                            // Safely handle _id which may be ObjectId or String
-                            Object idObj = doc.get("_id");
-                            if (idObj != null) {
-                                try {
-                                    if (idObj instanceof org.bson.types.ObjectId) {
-                                        news.setId(((org.bson.types.ObjectId) idObj).toHexString());
-                                    } else {
-                                        news.setId(idObj.toString());
-                                    }
-                                } catch (Exception ex) {
-                                    news.setId(idObj.toString());
-                                }
-                            }
-
-                            news.setTitle(trimQuotes(safeGetString(doc, "Headline")));
-                            news.setSource(trimQuotes(safeGetString(doc, "Source")));
-                            news.setLink(trimQuotes(safeGetString(doc, "Link")));
-                            news.setDate(trimQuotes(safeGetString(doc, "Time")));
-                            news.setSection(matchedSection);
-                            news.setImageLink(trimQuotes(safeGetString(doc, "ImageLink")));
-                            news.setDescription(trimQuotes(safeGetString(doc, "Description")));
-                            news.setCategory(trimQuotes(safeGetString(doc, "Category")));
-
-                            groupedNews.get(matchedSection).add(news);
+    // Place article at its publishedAt position, keeping the later article of its story
+    // cluster and evicting the oldest past the limit; false if the bucket is unchanged
+    private boolean insert(List<News> bucket, News article, String section) {
+        if (bucket.size() >= sectionLimit && isNewer(bucket.get(bucket.size() - 1), article)) {
+            return false;
+        }
+        String clusterId = article.getStoryClusterId();
+        if (clusterId != null) {
+            for (int i = 0; i < bucket.size(); i++) {
+                News existing = bucket.get(i);
+                if (Objects.equals(existing.getStoryClusterId(), clusterId)) {
+                    if (isNewer(existing, article)) {
+                        return false;
                     }
+                    bucket.remove(i);
+                    break;
                 }
             }
-        } catch (MongoTimeoutException mte) {
-            System.err.println("❌ HomeService: MongoDB operation timed out: " + mte.getMessage());
-            // return whatever groupedNews has (likely empty)
-        } catch (Exception e) {
-            e.printStackTrace();
         }
 
-        return groupedNews;
+        // Catalog articles are shared; copy so the section label can be normalized
+        News news = new News(article);
+        news.setSection(section);
+
+        int position = 0;
+        while (position < bucket.size() && isNewer(bucket.get(position), article)) {
+            position++;
+        }
+        bucket.add(position, news);
+        if (bucket.size() > sectionLimit) {
+            bucket.remove(bucket.size() - 1);
+        }
+        return true;
     }
 
-    // Helper: Find matching section (case-insensitive)
-    private String findMatchingSection(String value) {
-        for (String allowedSection : ALLOWED_SECTIONS) {
-            if (value.equalsIgnoreCase(allowedSection)) {
-                return allowedSection;
-            }
+    // Later publishedAt, or later ingest (_id) on ties, as in the catalog's recency order
+    private static boolean isNewer(News a, News b) {
+        if (a.getPublishedAt() != b.getPublishedAt()) {
+            return a.getPublishedAt() > b.getPublishedAt();
         }
-        return null;
+        String idA = a.getId() == null ? "" : a.getId();
+        String idB = b.getId() == null ? "" : b.getId();
+        return idA.length() != idB.length() ? idA.length() > idB.length() : idA.compareTo(idB) > 0;
     }
 
-    // Helper: Remove starting/ending quotes and trim whitespace
-    private String trimQuotes(String value) {
-        if (value == null) return null;
-        return value.replaceAll("^\"|\"$", "").trim();
+    public Map<String, List<News>> getNewsGroupedBySection() {
+        return feed;
     }
 
-    // Safe getter for any field from Document as String
-    private String safeGetString(Document doc, String key) {
-        try {
-            Object o = doc.get(key);
-            if (o == null) return null;
-            if (o instanceof String) return (String) o;
-            return o.toString();
-        } catch (Exception e) {
-            return null;
+    // Rebuild the immutable response map from the buckets
+    private synchronized void publish() {
+        Map<String, List<News>> groupedNews = new LinkedHashMap<>();
+        for (String section : sectionNames) {
+            groupedNews.put(section, Collections.unmodifiableList(new ArrayList<>(buckets.get(section))));
         }
+        feed = Collections.unmodifiableMap(groupedNews);
     }
-}
\ No newline at end of file
+}
@@ -1,100 +1,101 @@
 package com.example.service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.example.db.MongoDBConnection;
 import com.example.model.News;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoCursor;
-import com.mongodb.client.MongoDatabase;
+import com.example.utils.ArticleKeys;
+import com.example.utils.ServiceMetrics;
 
 @Service
 public class NewsService {
 
-    public List<News> getAllNews(int page, int limit, String search, String sectionFilter) {
+    // Cached totals are keyed by query and only valid for one catalog version
+    private static final int MAX_CACHED_COUNTS = 1000;
 
-        MongoDatabase db;
-        MongoCollection<Document> collection = null;
-        try {
-            db = MongoDBConnection.getDatabase();
-            collection = db.getCollection("articles");
-        } catch (Exception e) {
-            System.err.println("❌ NewsService: failed to obtain MongoDB collection: " + e.getMessage());
-            return new ArrayList<>();
-        }
+    @Autowired
+    private ArticleCatalog articleCatalog;
 
-        List<News> newsList = new ArrayList<>();
+    @Autowired
+    private ArticleSearchIndex articleSearchIndex;
 
-        // Build query filter
-        Document query = new Document();
-        
-        // Add section filter if not "all" - WITH CASE-INSENSITIVE MATCHING
-        if (sectionFilter != null && !sectionFilter.trim().isEmpty() && !sectionFilter.equals("all")) {
-            System.out.println("DEBUG: Adding section filter: " + sectionFilter);
-            
-            // Use case-insensitive regex for section matching, allowing for optional surrounding quotes
-            String sectionPattern = "^\"?" + Pattern.quote(sectionFilter.trim()) + "\"?$";
-            query.append("Section", new Document("$regex", sectionPattern).append("$options", "i"));
-        }
+    /**
+     * Totals for one catalog version. Replaced as a whole, so a count computed against
+     * one version can never land in the cache of another.
+     */
+    private static final class CountCache {
+        final long version;
+        final Map<String, Long> counts = new ConcurrentHashMap<>();
 
-        // Add search filter (regex search on Headline field)
-        if (search != null && !search.trim().isEmpty()) {
-            System.out.println("DEBUG: Adding search filter: " + search);
-            query.append("Headline", new Document("$regex", search.trim()).append("$options", "i"));
+        CountCache(long version) {
+            this.version = version;
         }
+    }
 
-        // Calculate skip value for pagination
-        int skip = (page - 1) * limit;
+    private final AtomicReference<CountCache> countCache = new AtomicReference<>(new CountCache(-1));
 
-        System.out.println("===== NEWS SERVICE DEBUG =====");
-        System.out.println("Query filter: " + query.toJson());
-        System.out.println("Page: " + page + ", Limit: " + limit + ", Skip: " + skip);
-        System.out.println("Section filter: '" + sectionFilter + "'");
-        System.out.println("Search term: '" + search + "'");
+    // Value of the sort parameter for newest-first ordering
+    public static final String SORT_RECENCY = "recency";
 
-        // Count total matching documents (for debugging)
-        long totalCount = collection.countDocuments(query);
-        System.out.println("Total matching documents in DB: " + totalCount);
+    public List<News> getAllNews(int page, int limit, String search, String sectionFilter) {
+        return getAllNews(page, limit, search, sectionFilter, null);
+    }
 
-        // MongoDB query execution order:
-        // 1. Apply filter (query) - filters by section and search FIRST
-        // 2. Apply skip - skips documents for pagination
-        // 3. Apply limit - returns only 'limit' number of documents
-        try (MongoCursor<Document> cursor = collection.find(query).skip(skip).limit(limit).iterator()) {
+    /**
+     * @param sort {@link #SORT_RECENCY} for newest publishedAt first; otherwise ingest order,
+     *             or relevance for a search
+     */
+    public List<News> getAllNews(int page, int limit, String search, String sectionFilter, String sort) {
+        return ServiceMetrics.time("NewsService", "getAllNews", () -> doGetAllNews(page, limit, search, sectionFilter, sort));
+    }
 
-            while (cursor.hasNext()) {
-                Document doc = cursor.next();
+    private List<News> doGetAllNews(int page, int limit, String search, String sectionFilter, String sort) {
+        boolean byRecency = SORT_RECENCY.equalsIgnoreCase(sort);
 
-                String section = trimQuotes(safeGetString(doc, "Section"));
-                String title = trimQuotes(safeGetString(doc, "Headline"));
+        ArticleCatalog.Snapshot snapshot = articleCatalog.snapshot();
+        List<News> newsList = new ArrayList<>();
 
-                News news = new News();
+        // Section filter if not "all" - equality on the canonical section key
+        String section = normalizeSection(sectionFilter);
 
-                Object idObj = doc.get("_id");
-                if (idObj != null) {
-                    news.setId(idObj.toString());
-                }
+        // Calculate skip value for pagination
+        long skip = (long) (Math.max(page, 1) - 1) * limit;
 
-                news.setTitle(title);
-                news.setSource(trimQuotes(safeGetString(doc, "Source")));
-                news.setLink(trimQuotes(safeGetString(doc, "Link")));
-                news.setDate(trimQuotes(safeGetString(doc, "Time")));
-                news.setSection(section);
-                news.setImageLink(trimQuotes(safeGetString(doc, "ImageLink")));
-                news.setDescription(trimQuotes(safeGetString(doc, "Description")));
-                news.setCategory(trimQuotes(safeGetString(doc, "Category")));
+        System.out.println("===== NEWS SERVICE DEBUG =====");
+        System.out.println("Catalog version: " + snapshot.getVersion() + ", size: " + snapshot.size());
+        System.out.println("Page: " + page + ", Limit: " + limit + ", Skip: " + skip);
+        System.out.println("Section filter: '" + sectionFilter + "'");
+        System.out.println("Search term: '" + search + "'");
+        System.out.println("Sort: '" + sort + "'");
 
+        if (search != null && !search.trim().isEmpty()) {
+            // Full-text search: served by the inverted index, ranked by relevance
+            newsList = articleSearchIndex.search(search.trim(), section, (int) Math.min(skip, Integer.MAX_VALUE), limit, byRecency);
+        } else {
+            // Browse: filter first, then skip, then limit; the recency order is prebuilt, so
+            // "latest" is a scan that stops after the page
+            long matched = 0;
+            for (News news : byRecency ? snapshot.getByRecency() : snapshot.getArticles()) {
+                if (section != null && !section.equals(news.getSectionKey())) {
+                    continue;
+                }
+                if (matched++ < skip) {
+                    continue;
+                }
                 newsList.add(news);
+                if (newsList.size() >= limit) {
+                    break;
+                }
             }
-
-        } catch (Exception e) {
-            System.err.println("ERROR: Exception while fetching news: " + e.getMessage());
-            e.printStackTrace();
         }
 
         System.out.println("Returned " + newsList.size() + " items from page " + page);
@@ -102,22 +103,111 @@ public class NewsService {
             System.out.println("Sample item - Section: " + newsList.get(0).getSection() + ", Title: " + newsList.get(0).getTitle());
         }
         System.out.println("==============================");
-        
+
         return newsList;
     }
 
-    private String safeGetString(Document doc, String key) {
-        try {
-            Object o = doc.get(key);
-            if (o == null) return null;
-            return o.toString();
-        } catch (Exception e) {
+    /**
+     * Keyset pagination over the catalog, newest first.
+     * The cursor encodes the _id of the last article returned, so every page costs the
+     * same regardless of how deep the client has scrolled.
+     *
+     * @param cursor        token returned as "nextCursor" by the previous page, or null for the first page
+     * @param limit         page size
+     * @param sectionFilter section name or "all"
+     * @return map with "items" and "nextCursor" (null when there are no more articles)
+     */
+    public Map<String, Object> getFeed(String cursor, int limit, String sectionFilter) {
+        ArticleCatalog.Snapshot snapshot = articleCatalog.snapshot();
+        List<News> articles = snapshot.getArticles();
+        String section = normalizeSection(sectionFilter);
+
+        // Start just below the last seen _id (or at the newest article)
+        int start = articles.size() - 1;
+        if (cursor != null && !cursor.isEmpty()) {
+            int idx = snapshot.indexOf(decodeCursor(cursor));
+            start = idx >= 0 ? idx - 1 : -idx - 2;
+        }
+
+        List<News> items = new ArrayList<>();
+        int i = start;
+        for (; i >= 0 && items.size() < limit; i--) {
+            News news = articles.get(i);
+            if (section == null || section.equals(news.getSectionKey())) {
+                items.add(news);
+            }
+        }
+
+        // Only hand out a cursor if another matching article exists below the last one
+        String nextCursor = null;
+        if (!items.isEmpty()) {
+            for (; i >= 0; i--) {
+                if (section == null || section.equals(articles.get(i).getSectionKey())) {
+                    nextCursor = encodeCursor(items.get(items.size() - 1).getId());
+                    break;
+                }
+            }
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", items);
+        page.put("nextCursor", nextCursor);
+        return page;
+    }
+
+    /**
+     * Total number of articles matching a section/search filter.
+     * Results are cached until the catalog version changes.
+     */
+    public long countNews(String search, String sectionFilter) {
+        ArticleCatalog.Snapshot snapshot = articleCatalog.snapshot();
+        String section = normalizeSection(sectionFilter);
+        String query = search == null ? "" : search.trim();
+
+        CountCache cache = countCache.get();
+        if (cache.version < snapshot.getVersion() || cache.counts.size() > MAX_CACHED_COUNTS) {
+            CountCache fresh = new CountCache(snapshot.getVersion());
+            cache = countCache.compareAndSet(cache, fresh) ? fresh : countCache.get();
+        }
+
+        String key = (section == null ? "" : section) + "\u0000" + query.toLowerCase();
+        if (cache.version != snapshot.getVersion()) {
+            // Our snapshot is already superseded; count without caching
+            return count(snapshot, query, section);
+        }
+        return cache.counts.computeIfAbsent(key, k -> count(snapshot, query, section));
+    }
+
+    private long count(ArticleCatalog.Snapshot snapshot, String query, String section) {
+        if (!query.isEmpty()) {
+            return articleSearchIndex.count(query, section);
+        }
+        long total = 0;
+        for (News news : snapshot.getArticles()) {
+            if (section == null || section.equals(news.getSectionKey())) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    // Canonical section key for a filter value, or null for "all"
+    private String normalizeSection(String sectionFilter) {
+        if (sectionFilter == null || sectionFilter.trim().isEmpty() || sectionFilter.equals("all")) {
             return null;
         }
+        return ArticleKeys.canonical(sectionFilter);
+    }
+
+    private String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
     }
 
-    private String trimQuotes(String value) {
-        if (value == null) return null;
-        return value.replaceAll("^\"|\"$", "").trim();
+    private String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
-}
\ No newline at end of file
+}
@@ -7,19 +7,20 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PatternDetectionService {
 
     @Autowired
-    private NewsService newsService;
+    private ArticleCatalog articleCatalog;
 
     public List<News> detectPattern(String regex) {
-        List<News> allNews = newsService.getAllNews(1, Integer.MAX_VALUE, "", "all");
         List<News> matchedNews = new ArrayList<>();
 
         try {
-            if (allNews == null || allNews.isEmpty()) {
+            if (articleCatalog.snapshot().isEmpty()) {
                 System.out.println("No news found!");
                 return matchedNews;
             }
@@ -29,18 +30,8 @@ public class PatternDetectionService {
                 return matchedNews;
             }
 
-            Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-
-            for (News news : allNews) {
-
-                String title = (news.getTitle() != null) ? news.getTitle() : "";
-                String description = (news.getDescription() != null) ? news.getDescription() : "";
-
-                // Match either title or description
-                if (pattern.matcher(title).find() || pattern.matcher(description).find()) {
-                    matchedNews.add(news);
-                }
-            }
+            matchedNews = streamMatches(Pattern.compile(regex, Pattern.CASE_INSENSITIVE))
+                    .collect(Collectors.toList());
 
         } catch (Exception e) {
             System.out.println("PatternDetectionService ERROR → " + e.getMessage());
@@ -48,4 +39,19 @@ public class PatternDetectionService {
 
         return matchedNews;
     }
+
+    /**
+     * Lazily match a compiled pattern against the current corpus.
+     * Articles are tested only as the returned stream is consumed.
+     */
+    public Stream<News> streamMatches(Pattern pattern) {
+        return articleCatalog.snapshot().getArticles().stream()
+                .filter(news -> {
+                    String title = (news.getTitle() != null) ? news.getTitle() : "";
+                    String description = (news.getDescription() != null) ? news.getDescription() : "";
+
+                    // Match either title or description
+                    return pattern.matcher(title).find() || pattern.matcher(description).find();
+                });
+    }
 }
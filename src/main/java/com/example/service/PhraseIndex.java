@@ -0,0 +1,259 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.model.News;
+import com.example.utils.CountMinSketch;
+import com.example.utils.RadixTrie;
+import com.example.utils.Tokenizer;
+import com.example.utils.TopK;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Multi-word completions ("prime min" → "prime minister") from headline n-grams.
+ *
+ * Every run of 2 to 4 consecutive headline words that neither starts nor ends with a
+ * stop word is a candidate phrase. A phrase seen min-count times in one batch is kept
+ * directly; rarer ones are counted in a count-min sketch and promoted once their count
+ * reaches min-count. Kept phrases live in a radix trie with per-node top-k caches, the
+ * same structure as {@link SuggestionIndex}, so a phrase completion is also one node
+ * lookup.
+ *
+ * The sketch is halved every width / 4 additions, which keeps its false counts low
+ * enough that one-off phrases are rarely promoted, and means a phrase must recur within
+ * a few thousand headlines to be kept. When the trie reaches max-phrases every phrase's
+ * counts are halved and it is rebuilt from the best-scored 90%, so phrases of old
+ * stories make way for new ones and memory stays bounded whatever the corpus size.
+ */
+@Service
+public class PhraseIndex implements ArticleCatalog.Listener {
+
+    private static final int MIN_WORDS = 2;
+    private static final int MAX_WORDS = 4;
+
+    // Share of max-phrases dropped when the trie is full
+    private static final double EVICT_FRACTION = 0.1;
+
+    // A phrase may contain these but not start or end with them ("minister of" is not a completion)
+    private static final Tokenizer.StopWords EDGE_WORDS = new Tokenizer.StopWords(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from",
+        "has", "he", "in", "is", "it", "its", "of", "on", "that", "the",
+        "to", "was", "will", "with", "this", "but", "they", "have", "had",
+        "she", "or", "we", "been", "were", "their", "s"
+    );
+
+    // Occurrences before a phrase is kept
+    @Value("${phrases.min-count:2}")
+    private int minCount = 2;
+
+    @Value("${phrases.max-phrases:200000}")
+    private int maxPhrases = 200000;
+
+    @Value("${phrases.sketch-width:262144}")
+    private int sketchWidth = 262144;
+
+    @Autowired
+    private ArticleCatalog articleCatalog;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Replaced, not cleared, on eviction; guarded by the lock
+    private RadixTrie<SuggestionIndex.TermStats> trie = newTrie();
+
+    // Counts of phrases not yet promoted, created on the first batch; guarded by the write lock
+    private CountMinSketch candidates;
+    private long sinceHalved;
+
+    @PostConstruct
+    private void register() {
+        articleCatalog.addListener(this);
+    }
+
+    private static RadixTrie<SuggestionIndex.TermStats> newTrie() {
+        return new RadixTrie<>(SuggestionIndex.TOP_K, SuggestionIndex::score);
+    }
+
+    @Override
+    public void onArticlesAdded(List<News> added, ArticleCatalog.Snapshot snapshot) {
+        // Count per batch first so the write lock is held only for the sketch and trie updates
+        Map<String, Integer> counts = new HashMap<>();
+        List<String> words = new ArrayList<>();
+        for (News news : added) {
+            words.clear();
+            Tokenizer.ALL.tokenize(news.getTitle(), (text, start, end) -> words.add(Tokenizer.lowercase(text, start, end)));
+            addPhrases(words, counts);
+        }
+
+        int promoted = 0;
+        int evictions = 0;
+        lock.writeLock().lock();
+        try {
+            if (candidates == null) {
+                candidates = new CountMinSketch(4, sketchWidth);
+            }
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                String phrase = entry.getKey();
+                int occurrences = entry.getValue();
+                if (trie.get(phrase) != null) {
+                    trie.update(phrase, p -> new SuggestionIndex.TermStats(), stats -> stats.occurrences += occurrences);
+                    continue;
+                }
+                int seen = occurrences;
+                if (seen < minCount) {
+                    long hash = CountMinSketch.hash(phrase);
+                    candidates.add(hash, occurrences);
+                    seen = candidates.estimate(hash);
+                    // Halving at a load of 1/4 per cell keeps the estimate of a one-off phrase
+                    // below min-count: 1M distinct phrases seen once promote about 900
+                    sinceHalved += occurrences;
+                    if (sinceHalved >= sketchWidth / 4) {
+                        candidates.halve();
+                        sinceHalved = 0;
+                    }
+                }
+                if (seen >= minCount) {
+                    int count = seen;
+                    if (trie.size() >= maxPhrases) {
+                        evict();
+                        evictions++;
+                    }
+                    trie.update(phrase, p -> new SuggestionIndex.TermStats(), stats -> stats.occurrences += count);
+                    promoted++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (promoted > 0) {
+            System.out.println("✅ PhraseIndex: " + promoted + " new phrases, " + trie.size() + " total"
+                    + (evictions > 0 ? ", " + evictions + " evictions" : ""));
+        }
+    }
+
+    // Halve every phrase's counts and rebuild the trie from the best-scored phrases that
+    // still have any, dropping at least EVICT_FRACTION of max-phrases; under the write lock
+    private void evict() {
+        List<String> phrases = new ArrayList<>(trie.size());
+        List<SuggestionIndex.TermStats> stats = new ArrayList<>(trie.size());
+        trie.visitPrefix("", (phrase, s) -> {
+            s.occurrences /= 2;
+            s.searches /= 2;
+            phrases.add(phrase);
+            stats.add(s);
+            return true;
+        });
+        int keep = (int) (maxPhrases * (1 - EVICT_FRACTION));
+        int[] best = TopK.select(phrases.size(), keep, i -> {
+            SuggestionIndex.TermStats s = stats.get(i);
+            return s.occurrences == 0 && s.searches == 0 ? Double.NaN : SuggestionIndex.score(s);
+        });
+        RadixTrie<SuggestionIndex.TermStats> next = newTrie();
+        for (int i : best) {
+            next.update(phrases.get(i), p -> stats.get(i), s -> { });
+        }
+        trie = next;
+    }
+
+    // Count the 2..4-word runs of words that do not start or end with a stop word
+    private static void addPhrases(List<String> words, Map<String, Integer> counts) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            if (isEdgeWord(words.get(i))) {
+                continue;
+            }
+            phrase.setLength(0);
+            phrase.append(words.get(i));
+            for (int n = 2; n <= MAX_WORDS && i + n <= words.size(); n++) {
+                String last = words.get(i + n - 1);
+                phrase.append(' ').append(last);
+                if (n >= MIN_WORDS && !isEdgeWord(last)) {
+                    counts.merge(phrase.toString(), 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    private static boolean isEdgeWord(String word) {
+        return EDGE_WORDS.contains(word, 0, word.length());
+    }
+
+    /**
+     * Count one search for a query that is a known phrase. Unknown phrases are ignored,
+     * so searches cannot grow the index.
+     */
+    public void recordSearch(String query) {
+        String phrase = normalize(query);
+        if (phrase == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (trie.get(phrase) != null) {
+                trie.update(phrase, p -> new SuggestionIndex.TermStats(), stats -> stats.searches++);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Phrases completing a multi-word query, best first.
+     *
+     * @return maps with "term" and "frequency" (times searched, halved at each eviction); empty
+     *         for single-word queries
+     */
+    public List<Map<String, Object>> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix == null) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            return SuggestionIndex.suggest(trie, prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lowercased words of query joined by single spaces, keeping one trailing space if the
+     * query ends between words ("prime " matches only phrases whose first word is prime);
+     * null unless the query has at least two words or one word and a trailing space.
+     */
+    public static String normalize(String query) {
+        if (query == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(query.length());
+        Tokenizer.ALL.tokenize(query, (text, start, end) -> {
+            if (normalized.length() > 0) normalized.append(' ');
+            for (int i = start; i < end; i++) {
+                normalized.append(Character.toLowerCase(text.charAt(i)));
+            }
+        });
+        if (normalized.length() == 0) {
+            return null;
+        }
+        if (!Character.isLetterOrDigit(query.charAt(query.length() - 1))) {
+            normalized.append(' ');
+        }
+        return normalized.indexOf(" ") < 0 ? null : normalized.toString();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.db.MongoDBConnection;
+import com.example.model.News;
+import com.example.utils.ServiceMetrics;
+import com.example.utils.TopK;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Time-decayed popularity (views) per article.
+ *
+ * A view at time t counts e^(-λ(now - t)), so popularity halves every half-life. The
+ * counters use forward decay: a view adds e^(λ(t - landmark)) to a striped DoubleAdder,
+ * and the current value is that sum times e^(-λ(now - landmark)). Recording a view is
+ * therefore a single lock-free add, with no read-modify-write of a decayed value.
+ *
+ * Counters live in memory and are written to "article_popularity" in one bulk write per
+ * flush interval, only for articles viewed since the last flush; they are reloaded from
+ * there at startup. Reads never touch user_interactions.
+ */
+@Service
+public class PopularityService {
+
+    private static final String COLLECTION = "article_popularity";
+
+    // Move the landmark forward once e^(λ(t - landmark)) reaches this, long before doubles overflow
+    private static final double MAX_SCALE = 1e12;
+
+    @Value("${popularity.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Autowired
+    private ArticleCatalog articleCatalog;
+
+    /**
+     * Scaled view sums relative to one landmark time. Replaced, not mutated, when the
+     * landmark moves.
+     */
+    private static final class Counters {
+        final long landmark;
+        final Map<String, DoubleAdder> sums = new ConcurrentHashMap<>();
+
+        Counters(long landmark) {
+            this.landmark = landmark;
+        }
+    }
+
+    private double lambda;
+    private volatile Counters counters = new Counters(System.currentTimeMillis());
+
+    // Articles viewed since the last flush
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    // Bumped by each flush that saw views, so cached rankings know to re-blend. Rankings
+    // blend the in-memory counters, so this moves whether or not the write succeeded.
+    private volatile long version;
+
+    @PostConstruct
+    private void load() {
+        lambda = Math.log(2) / (halfLifeHours * 3_600_000.0);
+        try {
+            Counters loaded = new Counters(System.currentTimeMillis());
+            for (Document doc : collection().find()) {
+                Number score = (Number) doc.get("score");
+                Number updatedAt = (Number) doc.get("updatedAt");
+                if (score == null || updatedAt == null) {
+                    continue;
+                }
+                DoubleAdder sum = new DoubleAdder();
+                sum.add(score.doubleValue() * Math.exp(lambda * (updatedAt.longValue() - loaded.landmark)));
+                loaded.sums.put(doc.get("_id").toString(), sum);
+            }
+            counters = loaded;
+            System.out.println("✅ PopularityService: loaded " + loaded.sums.size() + " article counters");
+        } catch (Exception e) {
+            System.err.println("❌ PopularityService: could not load counters: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Count one view of an article. Ids that are not in the catalog are ignored, so the
+     * counters are bounded by the corpus.
+     */
+    public void recordView(String articleId) {
+        if (articleId == null || articleCatalog.snapshot().indexOf(articleId) < 0) {
+            return;
+        }
+        Counters current = counters;
+        double scale = Math.exp(lambda * (System.currentTimeMillis() - current.landmark));
+        current.sums.computeIfAbsent(articleId, id -> new DoubleAdder()).add(scale);
+        dirty.add(articleId);
+    }
+
+    /**
+     * Decayed view count of an article now; 0 if it has never been viewed.
+     */
+    public double popularity(String articleId) {
+        Counters current = counters;
+        DoubleAdder sum = articleId == null ? null : current.sums.get(articleId);
+        return sum == null ? 0.0 : sum.sum() * decay(current);
+    }
+
+    /**
+     * Changes whenever a flush has seen new views.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Most read articles right now, by decayed views.
+     *
+     * @return copies of the articles with their popularity as score, most read first
+     */
+    public List<News> getMostRead(int limit) {
+        return ServiceMetrics.time("PopularityService", "getMostRead", () -> doGetMostRead(limit));
+    }
+
+    private List<News> doGetMostRead(int limit) {
+        ArticleCatalog.Snapshot snapshot = articleCatalog.snapshot();
+        Counters current = counters;
+        double decay = decay(current);
+
+        List<News> viewed = new ArrayList<>(current.sums.size());
+        List<Double> scores = new ArrayList<>(current.sums.size());
+        for (Map.Entry<String, DoubleAdder> entry : current.sums.entrySet()) {
+            int index = snapshot.indexOf(entry.getKey());
+            if (index >= 0) {
+                viewed.add(snapshot.getArticles().get(index));
+                scores.add(entry.getValue().sum() * decay);
+            }
+        }
+
+        int[] best = TopK.select(viewed.size(), limit, scores::get);
+        List<News> mostRead = new ArrayList<>(best.length);
+        for (int i : best) {
+            // Catalog articles are shared, so the score is set on a copy
+            News news = new News(viewed.get(i));
+            news.setScore(scores.get(i));
+            mostRead.add(news);
+        }
+        return mostRead;
+    }
+
+    /**
+     * Write the counters of articles viewed since the last flush in one bulk write.
+     * Articles whose write failed stay dirty and are written by the next flush.
+     */
+    @Scheduled(fixedDelayString = "${popularity.flush-interval-ms:60000}",
+               initialDelayString = "${popularity.flush-interval-ms:60000}")
+    @PreDestroy
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        maybeMoveLandmark();
+
+        long now = System.currentTimeMillis();
+        List<String> ids = new ArrayList<>();
+        List<WriteModel<Document>> batch = new ArrayList<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            String id = it.next();
+            it.remove();
+            ids.add(id);
+            batch.add(new ReplaceOneModel<>(Filters.eq("_id", id),
+                    new Document("_id", id).append("score", popularity(id)).append("updatedAt", now),
+                    new ReplaceOptions().upsert(true)));
+        }
+        version++;
+
+        try {
+            collection().bulkWrite(batch, new BulkWriteOptions().ordered(false));
+            System.out.println("💾 PopularityService: flushed " + batch.size() + " article counters");
+        } catch (MongoBulkWriteException e) {
+            // Unordered: the other writes went through, only retry the failed ones
+            System.err.println("❌ PopularityService: " + e.getWriteErrors().size() + " of " + batch.size() + " counters failed, will retry");
+            for (BulkWriteError error : e.getWriteErrors()) {
+                dirty.add(ids.get(error.getIndex()));
+            }
+        } catch (Exception e) {
+            System.err.println("❌ PopularityService: flush failed, will retry: " + e.getMessage());
+            dirty.addAll(ids);
+        }
+    }
+
+    // Rebase the counters on a new landmark before the scaled sums grow too large.
+    // A view racing with the move can be lost; that is acceptable for popularity.
+    private void maybeMoveLandmark() {
+        Counters current = counters;
+        if (Math.exp(lambda * (System.currentTimeMillis() - current.landmark)) < MAX_SCALE) {
+            return;
+        }
+        Counters moved = new Counters(System.currentTimeMillis());
+        double factor = Math.exp(lambda * (current.landmark - moved.landmark));
+        for (Map.Entry<String, DoubleAdder> entry : current.sums.entrySet()) {
+            DoubleAdder sum = new DoubleAdder();
+            sum.add(entry.getValue().sum() * factor);
+            moved.sums.put(entry.getKey(), sum);
+        }
+        counters = moved;
+    }
+
+    private double decay(Counters current) {
+        return Math.exp(-lambda * (System.currentTimeMillis() - current.landmark));
+    }
+
+    private MongoCollection<Document> collection() {
+        return MongoDBConnection.getDatabase().getCollection(COLLECTION);
+    }
+}
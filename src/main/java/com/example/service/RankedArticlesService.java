@@ -1,170 +1,508 @@
 package com.example.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.example.model.News;
+import com.example.utils.ArticleKeys;
+import com.example.utils.ServiceMetrics;
+import com.example.utils.Tokenizer;
+import com.example.utils.TopK;
 
+import jakarta.annotation.PostConstruct;
+
+/**
+ * TF-IDF ranking over the article catalog.
+ *
+ * Document frequencies and per-article term vectors are maintained incrementally as
+ * the {@link ArticleCatalog} ingests articles. Reads return a ready-sorted list that is
+ * rebuilt at most once per ingest batch, rescoring only articles whose terms changed.
+ * Each rebuild is published as an immutable, versioned {@link RankedSnapshot}.
+ *
+ * Scores decay with article age (publishedAt), halving every half-life, and are boosted
+ * by time-decayed popularity from {@link PopularityService}. Age is measured from the
+ * newest article rather than the wall clock, so the order only changes when articles
+ * arrive or popularity counters are flushed, and a published ranking stays valid until then.
+ */
 @Service
-public class RankedArticlesService {
+public class RankedArticlesService implements ArticleCatalog.Listener {
+
+    @Autowired
+    private ArticleCatalog articleCatalog;
 
     @Autowired
-    private NewsService newsService;
+    private ArticleSearchIndex articleSearchIndex;
 
-    // Stop words to exclude from ranking (common words that don't add value)
-    private static final Set<String> STOP_WORDS = Set.of(
+    @Autowired
+    private PopularityService popularityService;
+
+    // Terms of 3+ characters, excluding stop words (common words that don't add value)
+    private static final Tokenizer TOKENIZER = new Tokenizer(3, new Tokenizer.StopWords(
         "a", "an", "and", "are", "as", "at", "be", "by", "for", "from",
         "has", "he", "in", "is", "it", "its", "of", "on", "that", "the",
         "to", "was", "will", "with", "this", "but", "they", "have", "had",
         "what", "when", "where", "who", "which", "why", "how", "all", "each",
         "she", "or", "we", "been", "were", "their", "said", "can", "may"
-    );
+    ));
+
+    // Title is more important, so its terms count 3 times
+    private static final float TITLE_WEIGHT = 3f;
+
+    @Autowired
+    private TermDictionary termDictionary;
+
+    // Articles in catalog order; a document's ordinal is its position here.
+    // Term vectors hold tf / length per term id.
+    private final List<News> documents = new ArrayList<>();
+    private final List<TermVector> termVectors = new ArrayList<>();
+
+    // Immutable copy of termVectors, republished per ingest batch, so lookups take no lock
+    private volatile TermVector[] publishedVectors = new TermVector[0];
+
+    // Indexed by term id: number of documents containing the term, and which ones
+    private int[] documentFrequency = new int[1024];
+    private DocList[] postings = new DocList[1024];
+
+    // Σ (tf / length) × log(df) per document; the score is log(N) minus this.
+    // Entries whose df changed since they were computed are flagged in staleDocs.
+    private double[] weightedLogDf = new double[0];
+    private final BitSet staleDocs = new BitSet();
+
+    // Score halves for every half-life an article is older than the newest one; 0 disables
+    @Value("${ranking.recency-half-life-hours:24}")
+    private double recencyHalfLifeHours;
+
+    // Older articles keep at least 2^-MAX_HALF_LIVES of their score, so they still order by relevance
+    private static final int MAX_HALF_LIVES = 30;
+
+    // Articles ranked per slice of a streamed response
+    private static final int STREAM_CHUNK = 256;
+
+    // How long a superseded ranking stays available to page tokens
+    @Value("${ranking.snapshot-ttl-ms:600000}")
+    private long snapshotTtlMs;
+
+    // Weight of log(1 + decayed views) in the popularity boost; 0 disables
+    @Value("${ranking.popularity-weight:0.5}")
+    private double popularityWeight;
+
+    // Version of the last published ranking, and the popularity version it blended in
+    private long rankingVersion;
+    private volatile long blendedPopularityVersion;
+
+    // Latest ready-sorted ranking; null when ingest has invalidated it
+    private volatile RankedSnapshot latest = new RankedSnapshot(0, Collections.emptyList(), new double[0]);
+
+    // Ranking versions restart at 1 in every process, so page tokens also carry this
+    // per-process nonce; a token from a previous process or another instance never matches
+    private static final String TOKEN_NONCE = Long.toHexString(new SecureRandom().nextLong());
+
+    // Published rankings by version, kept for in-flight pagination until their TTL runs out
+    private final Map<Long, RankedSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Immutable ranking of the corpus as of one rebuild; versions increase with each rebuild.
+     *
+     * Holds the scores and materializes the ranked order lazily: only the prefix that
+     * has been asked for is selected (parallel top-k), and it grows by doubling. The
+     * order is fully determined by the scores, so every reader sees the same ranking.
+     * Articles scored NaN (duplicates collapsed into their story) are left out.
+     */
+    public static final class RankedSnapshot {
+        private final long version;
+        private final List<News> corpus;
+        private final double[] scores;
+        private final int size;
+        private volatile List<News> ranked = Collections.emptyList();
+        private volatile long supersededAt;
+
+        RankedSnapshot(long version, List<News> corpus, double[] scores) {
+            this.version = version;
+            this.corpus = corpus;
+            this.scores = scores;
+            int eligible = 0;
+            for (double score : scores) {
+                if (!Double.isNaN(score)) eligible++;
+            }
+            this.size = eligible;
+        }
+
+        public long getVersion() { return version; }
+
+        public int size() { return size; }
+
+        /**
+         * Whole corpus, best first.
+         */
+        public List<News> getArticles() {
+            return top(size);
+        }
+
+        /**
+         * View of [offset, offset + limit), no copying once that prefix is ranked.
+         */
+        public List<News> slice(int offset, int limit) {
+            int from = Math.min(Math.max(offset, 0), size);
+            int to = (int) Math.min((long) from + Math.max(limit, 0), size);
+            return top(to).subList(from, to);
+        }
+
+        // Best count articles (fewer if the ranking is smaller)
+        private List<News> top(int count) {
+            List<News> current = ranked;
+            if (current.size() >= Math.min(count, size)) {
+                return current;
+            }
+            synchronized (this) {
+                current = ranked;
+                if (current.size() >= Math.min(count, size)) {
+                    return current;
+                }
+                int k = Math.min(size, Math.max(count, current.size() * 2));
+                int[] order = TopK.select(corpus.size(), k, doc -> scores[doc]);
+
+                // Catalog articles are shared, so scores are set on copies
+                List<News> result = new ArrayList<>(order.length);
+                for (int doc : order) {
+                    News news = new News(corpus.get(doc));
+                    news.setScore(scores[doc]);
+                    result.add(news);
+                }
+                ranked = Collections.unmodifiableList(result);
+                return ranked;
+            }
+        }
+    }
+
+    @PostConstruct
+    private void register() {
+        articleCatalog.addListener(this);
+    }
+
+    /**
+     * Keep document frequencies and term vectors up to date. Documents sharing a term
+     * with the new articles have a shifted IDF and are marked stale; their scores are
+     * recomputed on the next read.
+     */
+    @Override
+    public synchronized void onArticlesAdded(List<News> added, ArticleCatalog.Snapshot snapshot) {
+        if (added.isEmpty()) {
+            return;
+        }
+
+        BitSet changedTerms = new BitSet();
+        for (News news : added) {
+            int doc = documents.size();
+            TermVector vector = termVector(news);
+            documents.add(news);
+            termVectors.add(vector);
+
+            for (int i = 0; i < vector.size(); i++) {
+                int term = vector.termId(i);
+                if (term >= documentFrequency.length) {
+                    int capacity = Math.max(term + 1, documentFrequency.length * 2);
+                    documentFrequency = Arrays.copyOf(documentFrequency, capacity);
+                    postings = Arrays.copyOf(postings, capacity);
+                }
+                documentFrequency[term]++;
+                if (postings[term] == null) {
+                    postings[term] = new DocList();
+                }
+                postings[term].add(doc);
+                changedTerms.set(term);
+            }
+        }
+
+        if (weightedLogDf.length < documents.size()) {
+            weightedLogDf = Arrays.copyOf(weightedLogDf, Math.max(documents.size(), weightedLogDf.length * 2));
+        }
+        // Only documents containing a changed term need rescoring
+        for (int term = changedTerms.nextSetBit(0); term >= 0; term = changedTerms.nextSetBit(term + 1)) {
+            DocList docs = postings[term];
+            for (int i = 0; i < docs.size; i++) {
+                staleDocs.set(docs.docs[i]);
+            }
+        }
+        publishedVectors = termVectors.toArray(new TermVector[0]);
+        latest = null;
+    }
 
     /**
      * Get all news articles ranked by TF-IDF score
      * TF-IDF = Term Frequency × Inverse Document Frequency
      */
     public List<News> getRankedNews() {
-        List<News> allNews = newsService.getAllNews(1, Integer.MAX_VALUE, "", "all");
+        return ServiceMetrics.time("RankedArticlesService", "getRankedNews", () -> doGetRankedNews());
+    }
 
-        if (allNews == null || allNews.isEmpty()) {
-            return Collections.emptyList();
-        }
+    private List<News> doGetRankedNews() {
+        return rankedSnapshot().getArticles();
+    }
 
-        // Step 1: Prepare documents and calculate document frequency
-        List<String> documents = new ArrayList<>();
-        Map<String, Integer> documentFrequency = new ConcurrentHashMap<>();
-        int totalDocuments = allNews.size();
+    /**
+     * The current ranking, rebuilt first if articles arrived or popularity changed since
+     * it was published.
+     */
+    public RankedSnapshot rankedSnapshot() {
+        RankedSnapshot current = latest;
+        return current != null && blendedPopularityVersion == popularityService.version() ? current : rebuildRanking();
+    }
 
-        // Extract text content and build document frequency map
-        for (News news : allNews) {
-            String content = buildContent(news);
-            documents.add(content);
-            
-            // Count in how many documents each term appears (for IDF calculation)
-            Set<String> uniqueTerms = extractUniqueTerms(content);
-            uniqueTerms.forEach(term -> 
-                documentFrequency.merge(term, 1, Integer::sum)
-            );
+    /**
+     * Rescore stale documents and re-sort. Runs once per ingest batch or popularity flush,
+     * on first read.
+     */
+    private synchronized RankedSnapshot rebuildRanking() {
+        long popularityVersion = popularityService.version();
+        if (latest != null && blendedPopularityVersion == popularityVersion) {
+            return latest;
         }
 
-        // Step 2: Calculate TF-IDF score for each article in parallel
-        allNews.parallelStream().forEach(news -> {
-            int index = allNews.indexOf(news);
-            String content = documents.get(index);
-            double score = calculateTFIDFScore(content, documentFrequency, totalDocuments);
-            news.setScore(score);
-        });
+        for (int doc = staleDocs.nextSetBit(0); doc >= 0; doc = staleDocs.nextSetBit(doc + 1)) {
+            weightedLogDf[doc] = weightedLogDf(termVectors.get(doc));
+        }
+        staleDocs.clear();
 
-        // Step 3: Sort by score descending
-        allNews.sort((n1, n2) -> Double.compare(n2.getScore(), n1.getScore()));
+        // Step 1: Score = Σ (tf / length) × log(N / df) = log(N) - Σ (tf / length) × log(df)
+        int totalDocuments = documents.size();
+        double logN = Math.log(totalDocuments);
+        double[] scores = new double[totalDocuments];
+        for (int doc = 0; doc < totalDocuments; doc++) {
+            scores[doc] = termVectors.get(doc).isEmpty() ? 0.0 : logN - weightedLogDf[doc];
+        }
+        applyRecencyDecay(scores);
+        applyPopularity(scores);
+        collapseStoryClusters(scores);
 
-        return allNews;
+        // Step 2: Order by score descending (ties keep ingest order), selected lazily per page
+        RankedSnapshot published = new RankedSnapshot(++rankingVersion, List.copyOf(documents), scores);
+        blendedPopularityVersion = popularityVersion;
+        snapshots.put(published.version, published);
+        long now = System.currentTimeMillis();
+        for (RankedSnapshot previous : snapshots.values()) {
+            if (previous != published && previous.supersededAt == 0) {
+                previous.supersededAt = now;
+            }
+        }
+        latest = published;
+        return published;
     }
 
     /**
-     * Get top ranked news with pagination support
+     * Blend in recency: score × 2^(-age / half-life), age relative to the newest article.
      */
-    public List<News> getTopRankedNews(int page, int limit) {
-        List<News> rankedNews = getRankedNews();
-        
-        if (rankedNews.isEmpty()) {
-            return Collections.emptyList();
+    private void applyRecencyDecay(double[] scores) {
+        if (recencyHalfLifeHours <= 0 || scores.length == 0) {
+            return;
+        }
+        long newest = Long.MIN_VALUE;
+        for (News news : documents) {
+            newest = Math.max(newest, news.getPublishedAt());
         }
-        
-        int startIndex = (page - 1) * limit;
-        int endIndex = Math.min(startIndex + limit, rankedNews.size());
-        
-        if (startIndex >= rankedNews.size()) {
-            return Collections.emptyList();
+        double halfLifeMs = recencyHalfLifeHours * 3_600_000.0;
+        for (int doc = 0; doc < scores.length; doc++) {
+            double halfLives = Math.min((newest - documents.get(doc).getPublishedAt()) / halfLifeMs, MAX_HALF_LIVES);
+            scores[doc] *= Math.pow(0.5, halfLives);
         }
-        
-        return rankedNews.subList(startIndex, endIndex);
     }
 
     /**
-     * Build content from news article (title has higher weight)
+     * Blend in popularity: score × (1 + weight × log(1 + decayed views)).
      */
-    private String buildContent(News news) {
-        StringBuilder content = new StringBuilder();
-        
-        // Title is more important, so we add it 3 times for higher weight
-        if (news.getTitle() != null) {
-            String title = news.getTitle();
-            content.append(title).append(" ")
-                   .append(title).append(" ")
-                   .append(title).append(" ");
+    private void applyPopularity(double[] scores) {
+        if (popularityWeight <= 0) {
+            return;
         }
-        
-        if (news.getDescription() != null) {
-            content.append(news.getDescription()).append(" ");
+        for (int doc = 0; doc < scores.length; doc++) {
+            double views = popularityService.popularity(documents.get(doc).getId());
+            if (views > 0) {
+                scores[doc] *= 1 + popularityWeight * Math.log1p(views);
+            }
         }
-        
-        return content.toString();
     }
 
     /**
-     * Extract unique terms from content (normalized and filtered)
+     * Keep one article per story cluster, the best scored (earliest on ties), by
+     * scoring the others NaN so they drop out of the ranking.
      */
-    private Set<String> extractUniqueTerms(String content) {
-        if (content == null || content.isEmpty()) {
-            return Collections.emptySet();
+    private void collapseStoryClusters(double[] scores) {
+        Map<String, Integer> bestByCluster = new HashMap<>();
+        for (int doc = 0; doc < scores.length; doc++) {
+            String clusterId = documents.get(doc).getStoryClusterId();
+            if (clusterId == null) {
+                continue;
+            }
+            Integer best = bestByCluster.putIfAbsent(clusterId, doc);
+            if (best == null) {
+                continue;
+            }
+            if (scores[doc] > scores[best]) {
+                scores[best] = Double.NaN;
+                bestByCluster.put(clusterId, doc);
+            } else {
+                scores[doc] = Double.NaN;
+            }
         }
+    }
 
-        return Arrays.stream(content.toLowerCase().split("\\W+"))
-                .filter(word -> !word.isEmpty() && word.length() > 2)
-                .filter(word -> !STOP_WORDS.contains(word))
-                .collect(Collectors.toSet());
+    /**
+     * Drop rankings that were superseded more than the TTL ago.
+     */
+    @Scheduled(fixedDelayString = "${ranking.snapshot-evict-interval-ms:60000}")
+    public void evictExpiredSnapshots() {
+        long cutoff = System.currentTimeMillis() - snapshotTtlMs;
+        snapshots.values().removeIf(snapshot -> snapshot.supersededAt != 0 && snapshot.supersededAt < cutoff);
     }
 
     /**
-     * Calculate TF-IDF score for a document
-     * TF-IDF = Σ(TF(term) × IDF(term)) for all terms in document
+     * One page of top stories from a fixed ranking.
+     *
+     * The page token encodes the process nonce, the ranking version and the offset of the
+     * next page, so every page of a walk comes from the same ordering even if articles
+     * arrive meanwhile, and a page is a slice of the published list.
+     *
+     * @param pageToken "nextPageToken" from the previous page, or null for the first page
+     * @param limit     page size
+     * @return map with "items", "version" and "nextPageToken" (null on the last page)
+     * @throws IllegalArgumentException if the token is malformed
+     * @throws IllegalStateException    if the token's ranking has expired or was published
+     *                                  by another process
      */
-    private double calculateTFIDFScore(String content, 
-                                       Map<String, Integer> documentFrequency, 
-                                       int totalDocuments) {
-        if (content == null || content.isEmpty()) {
-            return 0.0;
+    public Map<String, Object> getTopStoriesPage(String pageToken, int limit) {
+        RankedSnapshot snapshot;
+        int offset = 0;
+        if (pageToken == null || pageToken.isEmpty()) {
+            snapshot = rankedSnapshot();
+        } else {
+            long[] decoded = decodePageToken(pageToken);
+            snapshot = snapshots.get(decoded[0]);
+            if (snapshot == null) {
+                throw new IllegalStateException("Ranking " + decoded[0] + " has expired, start again without a page token");
+            }
+            offset = (int) decoded[1];
         }
 
-        // Tokenize and count term frequencies
-        List<String> terms = Arrays.stream(content.toLowerCase().split("\\W+"))
-                .filter(word -> !word.isEmpty() && word.length() > 2)
-                .filter(word -> !STOP_WORDS.contains(word))
-                .collect(Collectors.toList());
+        List<News> items = snapshot.slice(offset, limit);
+        int next = offset + items.size();
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", items);
+        page.put("version", snapshot.getVersion());
+        page.put("nextPageToken", next < snapshot.size() ? encodePageToken(snapshot.getVersion(), next) : null);
+        return page;
+    }
+
+    private String encodePageToken(long version, int offset) {
+        String token = TOKEN_NONCE + ":" + version + ":" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
 
-        if (terms.isEmpty()) {
-            return 0.0;
+    private long[] decodePageToken(String pageToken) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8).split(":");
+            long version = Long.parseLong(parts[1]);
+            long offset = Long.parseLong(parts[2]);
+            if (parts.length != 3 || offset < 0 || offset > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException();
+            }
+            if (!TOKEN_NONCE.equals(parts[0])) {
+                // Not thrown as malformed: the ranking it names is gone, like an expired one
+                throw new IllegalStateException("Ranking " + version + " is from another server process, start again without a page token");
+            }
+            return new long[] { version, offset };
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid page token: " + pageToken);
         }
+    }
 
-        // Calculate term frequency for this document
-        Map<String, Long> termFrequency = terms.stream()
-                .collect(Collectors.groupingBy(term -> term, Collectors.counting()));
+    /**
+     * Top stories for a topic: BM25 relevance to the query, with title matches boosted,
+     * computed with top-k early termination over the search index postings.
+     */
+    public List<News> getTopStoriesForTopic(String query, String section, int limit) {
+        return ServiceMetrics.time("RankedArticlesService", "getTopStoriesForTopic",
+                () -> articleSearchIndex.topK(query, normalizeSection(section), limit));
+    }
 
-        // Calculate TF-IDF score
-        double score = 0.0;
-        int docLength = terms.size();
+    private String normalizeSection(String section) {
+        if (section == null || section.trim().isEmpty() || section.equalsIgnoreCase("all")) {
+            return null;
+        }
+        return ArticleKeys.canonical(section);
+    }
+
+    /**
+     * Ranked articles as a lazy stream, best first, for incremental (streamed) responses.
+     * Articles are pulled from one ranking in slices of STREAM_CHUNK, so only as much of
+     * it is ranked as the consumer reads (a limited stream never ranks the whole corpus).
+     */
+    public Stream<News> streamRankedNews() {
+        RankedSnapshot snapshot = rankedSnapshot();
+        return IntStream.iterate(0, offset -> offset < snapshot.size(), offset -> offset + STREAM_CHUNK)
+                .mapToObj(offset -> snapshot.slice(offset, STREAM_CHUNK))
+                .flatMap(List::stream);
+    }
+
+    /**
+     * Get top ranked news with pagination support
+     */
+    public List<News> getTopRankedNews(int page, int limit) {
+        // long: a large page must land past the end, not overflow back to page 1
+        long offset = (long) (Math.max(page, 1) - 1) * Math.max(limit, 0);
+        return rankedSnapshot().slice((int) Math.min(offset, Integer.MAX_VALUE), limit);
+    }
+
+    /**
+     * Term vector of a document: tf / length per term id, title terms weighted 3x
+     */
+    private TermVector termVector(News news) {
+        TermVector.Builder builder = new TermVector.Builder();
+        TOKENIZER.tokenize(news.getTitle(), (text, start, end) ->
+                builder.add(termDictionary.intern(Tokenizer.lowercase(text, start, end)), TITLE_WEIGHT));
+        TOKENIZER.tokenize(news.getDescription(), (text, start, end) ->
+                builder.add(termDictionary.intern(Tokenizer.lowercase(text, start, end))));
+        return builder.build().normalized();
+    }
 
-        for (Map.Entry<String, Long> entry : termFrequency.entrySet()) {
-            String term = entry.getKey();
-            long tf = entry.getValue();
-            
-            // Term Frequency (normalized by document length)
-            double termFreq = (double) tf / docLength;
-            
-            // Inverse Document Frequency
-            int df = documentFrequency.getOrDefault(term, 1);
-            double idf = Math.log((double) totalDocuments / df);
-            
-            // TF-IDF contribution for this term
-            score += termFreq * idf;
+    // Σ (tf / length) × log(df) over the terms of a document
+    private double weightedLogDf(TermVector vector) {
+        double sum = 0.0;
+        for (int i = 0; i < vector.size(); i++) {
+            sum += vector.weight(i) * Math.log(documentFrequency[vector.termId(i)]);
         }
+        return sum;
+    }
+
+    /**
+     * Term vector (tf / length per term id) of a catalog article, or an empty vector if
+     * the article has not been indexed yet. Lock-free: never waits for a rebuild or ingest.
+     */
+    public TermVector termVector(int catalogIndex) {
+        TermVector[] vectors = publishedVectors;
+        return catalogIndex >= 0 && catalogIndex < vectors.length ? vectors[catalogIndex] : TermVector.EMPTY;
+    }
+
+    /**
+     * Growable list of document ordinals, ascending
+     */
+    private static final class DocList {
+        private int[] docs = new int[4];
+        private int size;
 
-        return score;
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
     }
-}
\ No newline at end of file
+}
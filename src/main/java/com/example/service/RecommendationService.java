@@ -1,11 +1,13 @@
 package com.example.service;
 
 import com.example.model.News;
+import com.example.utils.ServiceMetrics;
+import com.example.utils.Tokenizer;
+import com.example.utils.TopK;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class RecommendationService {
@@ -16,10 +18,30 @@ public class RecommendationService {
     @Autowired
     private NewsService newsService;
 
+    @Autowired
+    private ArticleCatalog articleCatalog;
+
+    @Autowired
+    private RankedArticlesService rankedArticlesService;
+
+    @Autowired
+    private TermDictionary termDictionary;
+
+    // Score added per preferred keyword that occurs in an article
+    private static final float KEYWORD_WEIGHT = 20f;
+
+    // Recency bonus for a brand-new article, halving every RECENCY_HALF_LIFE_MS
+    private static final double RECENCY_BONUS = 5.0;
+    private static final double RECENCY_HALF_LIFE_MS = 24 * 3_600_000.0;
+
     /**
      * Get personalized recommendations for a user
      */
     public List<News> getRecommendations(String userId, int limit) {
+        return ServiceMetrics.time("RecommendationService", "getRecommendations", () -> doGetRecommendations(userId, limit));
+    }
+
+    private List<News> doGetRecommendations(String userId, int limit) {
         try {
             System.out.println("🎯 Generating recommendations for user: " + userId);
 
@@ -30,11 +52,14 @@ public class RecommendationService {
             @SuppressWarnings("unchecked")
             List<String> keywords = (List<String>) preferences.get("keywords");
 
+            // Keywords as a term vector, so matching is a merge over sorted term ids
+            TermVector keywordVector = keywordVector(keywords);
+
             // Get clicked article IDs to exclude
             Set<String> clickedIds = userInteractionService.getClickedArticleIds(userId);
 
-            // Get all available news articles
-            List<News> allNews = newsService.getAllNews(1, 500, "", "all");
+            // Candidates are the newest articles; ingest order would give the oldest
+            List<News> allNews = newsService.getAllNews(1, 500, "", "all", NewsService.SORT_RECENCY);
 
             if (allNews.isEmpty()) {
                 System.out.println("⚠️ No news articles available");
@@ -42,7 +67,11 @@ public class RecommendationService {
             }
 
             // Score each article
+            ArticleCatalog.Snapshot snapshot = articleCatalog.snapshot();
+            long now = System.currentTimeMillis();
             List<ScoredArticle> scoredArticles = new ArrayList<>();
+            // Position in scoredArticles of the best article seen per story cluster
+            Map<String, Integer> bestInCluster = new HashMap<>();
             
             for (News article : allNews) {
                 // Skip if already clicked
@@ -51,16 +80,30 @@ public class RecommendationService {
                     continue;
                 }
 
-                double score = calculateScore(article, favoriteSections, keywords);
+                TermVector articleVector = rankedArticlesService.termVector(snapshot.indexOf(article.getId()));
+                double score = calculateScore(article, favoriteSections, keywordVector, articleVector, now);
                 scoredArticles.add(new ScoredArticle(article, score));
+
+                // Recommend each story once: only the best scored article of its cluster stays eligible
+                if (article.getStoryClusterId() != null) {
+                    int position = scoredArticles.size() - 1;
+                    Integer previous = bestInCluster.putIfAbsent(article.getStoryClusterId(), position);
+                    if (previous != null && score > scoredArticles.get(previous).getScore()) {
+                        bestInCluster.put(article.getStoryClusterId(), position);
+                    }
+                }
             }
 
-            // Sort by score and return top N
-            List<News> recommendations = scoredArticles.stream()
-                    .sorted(Comparator.comparingDouble(ScoredArticle::getScore).reversed())
-                    .limit(limit)
-                    .map(ScoredArticle::getArticle)
-                    .collect(Collectors.toList());
+            // Top N by score, without sorting everything; collapsed duplicates score NaN
+            int[] best = TopK.select(scoredArticles.size(), limit, i -> {
+                String clusterId = scoredArticles.get(i).getArticle().getStoryClusterId();
+                return clusterId == null || bestInCluster.get(clusterId) == i
+                        ? scoredArticles.get(i).getScore() : Double.NaN;
+            });
+            List<News> recommendations = new ArrayList<>(best.length);
+            for (int i : best) {
+                recommendations.add(scoredArticles.get(i).getArticle());
+            }
 
             System.out.println("✅ Generated " + recommendations.size() + " recommendations");
             return recommendations;
@@ -75,7 +118,8 @@ public class RecommendationService {
     /**
      * Calculate relevance score for an article
      */
-    private double calculateScore(News article, List<String> favoriteSections, List<String> keywords) {
+    private double calculateScore(News article, List<String> favoriteSections,
+                                  TermVector keywordVector, TermVector articleVector, long now) {
         double score = 0.0;
 
         // Section matching (highest weight)
@@ -83,21 +127,39 @@ public class RecommendationService {
             score += 10.0;
         }
 
-        // Keyword matching
-        String articleText = (article.getTitle() + " " + article.getDescription()).toLowerCase();
-        for (String keyword : keywords) {
-            if (articleText.contains(keyword.toLowerCase())) {
-                score += 20.0; // Strong boost for keyword matches
-            }
-        }
+        // Keyword matching: strong boost for every keyword the article contains
+        score += keywordVector.overlap(articleVector);
 
-        // Recency bonus (prefer newer articles)
-        // This is a simple heuristic - you can improve it with actual date parsing
-        score += 1.0;
+        // Recency bonus (prefer newer articles), decaying with age since publishedAt
+        double ageMs = Math.max(now - article.getPublishedAt(), 0);
+        score += RECENCY_BONUS * Math.pow(0.5, ageMs / RECENCY_HALF_LIFE_MS);
 
         return score;
     }
 
+    /**
+     * Keywords as term ids. Each keyword is worth KEYWORD_WEIGHT, split evenly over its
+     * words, so an article containing every word of "climate change" gets the full boost.
+     *
+     * Matching is by whole indexed term, not by substring of the article text as it
+     * used to be: "elect" no longer matches "election". A word the ranking index has never
+     * seen (including stop words and words under three letters, which it does not index)
+     * cannot occur in any article and is left out; it contributes nothing, as before.
+     */
+    private TermVector keywordVector(List<String> keywords) {
+        TermVector.Builder builder = new TermVector.Builder();
+        for (String keyword : new HashSet<>(keywords)) {
+            List<String> words = Tokenizer.ALL.tokens(keyword);
+            for (String word : words) {
+                int id = termDictionary.id(word);
+                if (id != TermDictionary.UNKNOWN) {
+                    builder.add(id, KEYWORD_WEIGHT / words.size());
+                }
+            }
+        }
+        return builder.build();
+    }
+
     /**
      * Generate a unique ID for an article
      */
@@ -0,0 +1,127 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.bson.Document;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.db.MongoDBConnection;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind counters for "search_frequency".
+ *
+ * Searches increment a LongAdder per term in memory instead of upserting on the
+ * request thread. A scheduled flush sends the accumulated deltas in one unordered
+ * bulkWrite of $inc upserts, so a burst of the same query costs one write per flush
+ * interval rather than one per search. Counts in MongoDB are at most one interval
+ * stale; a failed flush puts its deltas back for the next one, and the counters are
+ * flushed once more on shutdown.
+ */
+@Service
+public class SearchCountWriter {
+
+    // Pending deltas by term
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final Timer flushTimer = Timer.builder("newsagg.search_frequency.flush")
+            .description("Time to write one batch of search counts")
+            .register(Metrics.globalRegistry);
+    private final DistributionSummary flushSize = DistributionSummary.builder("newsagg.search_frequency.flush.size")
+            .description("Terms written per search count flush")
+            .register(Metrics.globalRegistry);
+
+    public SearchCountWriter() {
+        Gauge.builder("newsagg.search_frequency.pending", pending, Map::size)
+                .description("Terms with unflushed search counts")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Count one search of term.
+     */
+    public void increment(String term) {
+        add(term, 1);
+    }
+
+    // Inside compute, so the adder cannot be dropped by flush between lookup and add
+    private void add(String term, long delta) {
+        pending.compute(term, (key, adder) -> {
+            if (adder == null) {
+                adder = new LongAdder();
+            }
+            adder.add(delta);
+            return adder;
+        });
+    }
+
+    /**
+     * Write the accumulated deltas. Entries that stayed at zero for a whole interval are
+     * dropped, atomically with respect to {@link #increment}, so no search is lost.
+     */
+    @Scheduled(fixedDelayString = "${search-frequency.flush-interval-ms:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        List<String> keys = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0) {
+                pending.computeIfPresent(entry.getKey(), (key, adder) -> adder.sum() == 0 ? null : adder);
+                continue;
+            }
+            keys.add(entry.getKey());
+            deltas.add(delta);
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<WriteModel<Document>> batch = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            batch.add(new UpdateOneModel<>(
+                    Filters.eq(SearchStatsService.TERM_FIELD, keys.get(i)),
+                    Updates.inc("count", deltas.get(i)),
+                    new UpdateOptions().upsert(true)));
+        }
+
+        long start = System.nanoTime();
+        try {
+            MongoDBConnection.getDatabase().getCollection(SearchStatsService.COLLECTION)
+                    .bulkWrite(batch, new BulkWriteOptions().ordered(false));
+            flushSize.record(batch.size());
+        } catch (MongoBulkWriteException e) {
+            // Unordered: the other writes went through, only retry the failed ones
+            System.err.println("❌ SearchCountWriter: " + e.getWriteErrors().size() + " of " + batch.size() + " terms failed, will retry");
+            for (BulkWriteError error : e.getWriteErrors()) {
+                add(keys.get(error.getIndex()), deltas.get(error.getIndex()));
+            }
+        } catch (Exception e) {
+            System.err.println("❌ SearchCountWriter: flush of " + batch.size() + " terms failed, will retry: " + e.getMessage());
+            for (int i = 0; i < keys.size(); i++) {
+                add(keys.get(i), deltas.get(i));
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
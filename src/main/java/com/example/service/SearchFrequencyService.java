@@ -5,81 +5,46 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.example.db.MongoDBConnection;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.Filters;
-import com.mongodb.client.model.UpdateOptions;
-import com.mongodb.client.model.Updates;
+import com.example.utils.SpaceSaving;
 
 @Service
 public class SearchFrequencyService {
 
-    // Get the MongoDB collection
-    private MongoCollection<Document> getSearchFrequencyCollection() {
-        try {
-            MongoDatabase db = MongoDBConnection.getDatabase();
-            return db.getCollection("search_frequency");
-        } catch (Exception e) {
-            System.err.println("❌ SearchFrequencyService: failed to get collection: " + e.getMessage());
-            return null;
-        }
-    }
+    @Autowired
+    private SearchStatsService searchStatsService;
 
     // Record a search keyword
     public void recordSearch(String keyword) {
-        if (keyword == null || keyword.trim().isEmpty()) 
-            return;
-
-        String word = keyword.trim().toLowerCase();
-        MongoCollection<Document> collection = getSearchFrequencyCollection();
-        if (collection == null) return;
-
-        try {
-            collection.updateOne(
-                Filters.eq("word", word),
-                Updates.inc("count", 1),
-                new UpdateOptions().upsert(true)
-            );
-        } catch (Exception e) {
-            System.err.println("❌ SearchFrequencyService: failed to record search: " + e.getMessage());
-        }
+        searchStatsService.recordSearch(keyword);
     }
 
     // Get frequency of a keyword or top searched keywords
     public Map<String, Object> getFrequency(String keyword) {
         Map<String, Object> result = new LinkedHashMap<>();
         try {
-            MongoCollection<Document> collection = getSearchFrequencyCollection();
-
             if (keyword == null || keyword.trim().isEmpty()) {
-                // Return top 10 searched words
-                List<Document> top = collection.find()
-                        .sort(new Document("count", -1))
-                        .limit(10)
-                        .into(new ArrayList<>());
-
+                // Return top 10 searched words, from the in-memory summary
                 List<Map<String, Object>> topWords = new ArrayList<>();
-                for (Document doc : top) {
+                for (SpaceSaving.Entry entry : searchStatsService.getTopSearches(10)) {
                     topWords.add(Map.of(
-                            "word", doc.getString("word"),
-                            "count", doc.getInteger("count", 0)
+                            "word", entry.getItem(),
+                            "count", entry.getCount(),
+                            "error", entry.getError()
                     ));
                 }
 
                 result.put("status", "success");
                 result.put("top_words", topWords);
+                result.put("guaranteed", searchStatsService.isTopGuaranteed(10));
             } else {
                 // Return count for specific keyword
-                Document doc = collection.find(Filters.eq("word", keyword.trim().toLowerCase())).first();
-                int count = (doc != null) ? doc.getInteger("count", 0) : 0;
-
+                String word = keyword.trim().toLowerCase();
                 result.put("status", "success");
-                result.put("keyword", keyword.trim().toLowerCase());
-                result.put("count", count);
+                result.put("keyword", word);
+                result.put("count", searchStatsService.getStoredCount(word));
             }
         } catch (Exception e) {
             result.put("status", "error");
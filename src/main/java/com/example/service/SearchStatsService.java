@@ -0,0 +1,155 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.db.MongoDBConnection;
+import com.example.utils.ServiceMetrics;
+import com.example.utils.SpaceSaving;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The one place a search is counted, and the source of the top searches.
+ *
+ * Every search event (/api/search/record, /api/search-autocomplete/increment and
+ * /api/search-increment) goes through {@link #recordSearch}, which feeds trending
+ * detection, the word and phrase suggestion indexes, the write-behind count of the term in
+ * "search_frequency", and an in-memory Space-Saving summary. Top searches are read from
+ * the summary in O(k) instead of sorting the collection on every call.
+ *
+ * "search_frequency" holds one document per term: { term, count }. Documents written by
+ * the old search analytics path as { word, count } are merged into it at startup.
+ */
+@Service
+public class SearchStatsService {
+
+    static final String COLLECTION = "search_frequency";
+    static final String TERM_FIELD = "term";
+
+    // Counters in the summary; a count is overestimated by at most total searches / capacity
+    @Value("${search-frequency.top-capacity:1000}")
+    private int capacity;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private PhraseIndex phraseIndex;
+
+    @Autowired
+    private SearchCountWriter searchCountWriter;
+
+    // Guarded by itself
+    private SpaceSaving topTerms;
+
+    @PostConstruct
+    private void load() {
+        topTerms = new SpaceSaving(capacity);
+        try {
+            mergeLegacyWords();
+            // Highest counts first (count_desc index), so each goes in at the bottom of the summary
+            int loaded = 0;
+            for (Document doc : collection().find(Filters.exists(TERM_FIELD))
+                    .sort(Sorts.descending("count")).limit(capacity)) {
+                String term = doc.getString(TERM_FIELD);
+                Number count = (Number) doc.get("count");
+                if (term == null || term.isEmpty() || count == null) {
+                    continue;
+                }
+                topTerms.add(term, count.longValue());
+                loaded++;
+            }
+            System.out.println("✅ SearchStatsService: loaded " + loaded + " top search counts");
+        } catch (Exception e) {
+            System.err.println("❌ SearchStatsService: could not load search counts: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Count one search. The term is trimmed and lowercased.
+     */
+    public void recordSearch(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return;
+        }
+        String term = query.trim().toLowerCase();
+        trendingService.recordSearch(term);
+        suggestionIndex.recordSearch(term);
+        phraseIndex.recordSearch(term);
+        searchCountWriter.increment(term);
+        synchronized (topTerms) {
+            topTerms.add(term);
+        }
+    }
+
+    /**
+     * Most searched terms, highest count first. Each count is an upper bound on the true
+     * count and exceeds it by at most the entry's error.
+     */
+    public List<SpaceSaving.Entry> getTopSearches(int limit) {
+        return ServiceMetrics.time("SearchStatsService", "getTopSearches", () -> {
+            synchronized (topTerms) {
+                return topTerms.top(Math.min(limit, capacity));
+            }
+        });
+    }
+
+    /**
+     * Whether the top limit terms are certainly the true top limit, not just likely.
+     */
+    public boolean isTopGuaranteed(int limit) {
+        synchronized (topTerms) {
+            return topTerms.isTopGuaranteed(Math.min(limit, capacity));
+        }
+    }
+
+    /**
+     * Stored count of a term (lowercased), not including searches still waiting to be flushed.
+     */
+    public long getStoredCount(String term) {
+        Document doc = collection().find(Filters.eq(TERM_FIELD, term)).first();
+        Number count = doc == null ? null : (Number) doc.get("count");
+        return count == null ? 0 : count.longValue();
+    }
+
+    // Fold { word, count } documents into the { term, count } ones, then drop them
+    private void mergeLegacyWords() {
+        MongoCollection<Document> collection = collection();
+        List<WriteModel<Document>> batch = new ArrayList<>();
+        for (Document doc : collection.find(Filters.and(Filters.exists("word"), Filters.exists(TERM_FIELD, false)))) {
+            String word = doc.getString("word");
+            Number count = (Number) doc.get("count");
+            if (word != null && !word.isEmpty() && count != null) {
+                batch.add(new UpdateOneModel<>(Filters.eq(TERM_FIELD, word.trim().toLowerCase()),
+                        Updates.inc("count", count.longValue()), new UpdateOptions().upsert(true)));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        collection.bulkWrite(batch, new BulkWriteOptions().ordered(false));
+        collection.deleteMany(Filters.and(Filters.exists("word"), Filters.exists(TERM_FIELD, false)));
+        System.out.println("✅ SearchStatsService: merged " + batch.size() + " legacy search counts");
+    }
+
+    private MongoCollection<Document> collection() {
+        return MongoDBConnection.getDatabase().getCollection(COLLECTION);
+    }
+}
@@ -2,13 +2,15 @@ package com.example.service;
 
 import java.util.*;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.bson.Document;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.example.db.MongoDBConnection;
+import com.example.utils.ServiceMetrics;
+import com.example.utils.Tokenizer;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
@@ -16,9 +18,15 @@ import com.mongodb.client.MongoDatabase;
 @Service
 public class SpellCheckService {
 
-    private final Set<String> dictionaryWords = new HashSet<>();
-    private final Map<String, Integer> wordFrequency = new HashMap<>();
+    @Autowired
+    private TermDictionary termDictionary;
+
+    // Spell-check vocabulary as term ids, and occurrence counts indexed by term id
+    private int[] dictionaryWords = new int[1024];
+    private int dictionarySize;
+    private int[] wordFrequency = new int[1024];
     private static final int MIN_WORD_LENGTH = 2;
+    private static final Tokenizer TOKENIZER = new Tokenizer(MIN_WORD_LENGTH, Tokenizer.StopWords.NONE);
     private static final int MAX_SUGGESTIONS = 5;
 
     public SpellCheckService() {
@@ -58,7 +66,7 @@ public class SpellCheckService {
             }
 
             long duration = System.currentTimeMillis() - startTime;
-            System.out.println("✅ Loaded " + dictionaryWords.size() + " unique words from news articles in " + duration + "ms");
+            System.out.println("✅ Loaded " + dictionarySize + " unique words from news articles in " + duration + "ms");
 
         } catch (Exception e) {
             System.err.println("❌ Error loading words from MongoDB: " + e.getMessage());
@@ -74,18 +82,19 @@ public class SpellCheckService {
             return;
         }
 
-        // Extract words: lowercase, remove special characters
-        String[] words = text.toLowerCase()
-                .replaceAll("[^a-z0-9\\s]", " ")
-                .trim()
-                .split("\\s+");
-
-        for (String word : words) {
-            if (!word.isEmpty() && word.length() >= MIN_WORD_LENGTH) {
-                dictionaryWords.add(word);
-                wordFrequency.put(word, wordFrequency.getOrDefault(word, 0) + 1);
+        // Extract lowercase words of MIN_WORD_LENGTH or more
+        TOKENIZER.tokenize(text, (chars, start, end) -> {
+            int id = termDictionary.intern(Tokenizer.lowercase(chars, start, end));
+            if (id >= wordFrequency.length) {
+                wordFrequency = Arrays.copyOf(wordFrequency, Math.max(id + 1, wordFrequency.length * 2));
             }
-        }
+            if (wordFrequency[id]++ == 0) {
+                if (dictionarySize == dictionaryWords.length) {
+                    dictionaryWords = Arrays.copyOf(dictionaryWords, dictionarySize * 2);
+                }
+                dictionaryWords[dictionarySize++] = id;
+            }
+        });
     }
 
     /**
@@ -93,6 +102,10 @@ public class SpellCheckService {
      * Returns map with status, original text, and wrong words with suggestions
      */
     public Map<String, Object> checkSpelling(String inputText) {
+        return ServiceMetrics.time("SpellCheckService", "checkSpelling", () -> doCheckSpelling(inputText));
+    }
+
+    private Map<String, Object> doCheckSpelling(String inputText) {
         Map<String, Object> result = new LinkedHashMap<>();
         List<Map<String, String>> wrongWordsWithSuggestions = new ArrayList<>();
 
@@ -102,20 +115,10 @@ public class SpellCheckService {
             return result;
         }
 
-        // Clean and split text into words
-        String cleanedText = inputText.toLowerCase()
-                .replaceAll("[^a-z0-9\\s]", " ")
-                .trim();
-        String[] words = cleanedText.split("\\s+");
-
         // Check each word
-        for (String word : words) {
-            if (word.isEmpty() || word.length() < MIN_WORD_LENGTH) {
-                continue;
-            }
-
+        for (String word : TOKENIZER.tokens(inputText)) {
             // If word not in dictionary, find suggestion
-            if (!dictionaryWords.contains(word)) {
+            if (frequency(word) == 0) {
                 String suggestion = findClosestWord(word);
                 if (suggestion != null && !suggestion.isEmpty()) {
                     Map<String, String> wrongWord = new LinkedHashMap<>();
@@ -140,14 +143,17 @@ public class SpellCheckService {
      * Prioritizes words by frequency
      */
     private String findClosestWord(String word) {
-        if (dictionaryWords.isEmpty()) {
+        if (dictionarySize == 0) {
             return null;
         }
 
         String closestWord = "";
+        int closestFreq = 0;
         int minDistance = Integer.MAX_VALUE;
 
-        for (String dictWord : dictionaryWords) {
+        for (int d = 0; d < dictionarySize; d++) {
+            String dictWord = termDictionary.term(dictionaryWords[d]);
+            int currentFreq = wordFrequency[dictionaryWords[d]];
             // Skip if word length differs by more than 3 characters
             if (Math.abs(word.length() - dictWord.length()) > 3) {
                 continue;
@@ -159,12 +165,12 @@ public class SpellCheckService {
             if (distance < minDistance) {
                 minDistance = distance;
                 closestWord = dictWord;
+                closestFreq = currentFreq;
             } else if (distance == minDistance && distance <= 2) {
                 // If same distance, pick more frequent word
-                int currentFreq = wordFrequency.getOrDefault(dictWord, 0);
-                int closestFreq = wordFrequency.getOrDefault(closestWord, 0);
                 if (currentFreq > closestFreq) {
                     closestWord = dictWord;
+                    closestFreq = currentFreq;
                 }
             }
         }
@@ -177,6 +183,12 @@ public class SpellCheckService {
         return null;
     }
 
+    // Occurrences of a word in the corpus, 0 if it is not in the spell-check vocabulary
+    private int frequency(String word) {
+        int id = termDictionary.id(word);
+        return id != TermDictionary.UNKNOWN && id < wordFrequency.length ? wordFrequency[id] : 0;
+    }
+
     /**
      * Calculate Levenshtein distance between two strings
      * Lower distance = more similar words
@@ -213,26 +225,46 @@ public class SpellCheckService {
      * Get multiple suggestions for a misspelled word
      */
     public List<String> getSuggestions(String word, int count) {
-        if (word == null || word.isEmpty() || dictionaryWords.isEmpty()) {
+        return ServiceMetrics.time("SpellCheckService", "getSuggestions", () -> doGetSuggestions(word, count));
+    }
+
+    private List<String> doGetSuggestions(String word, int count) {
+        if (word == null || word.isEmpty() || dictionarySize == 0) {
             return new ArrayList<>();
         }
 
-        List<String> suggestions = dictionaryWords.stream()
-                .filter(w -> Math.abs(w.length() - word.length()) <= 3)
-                .map(w -> new AbstractMap.SimpleEntry<>(w, levenshteinDistance(word, w)))
-                .filter(e -> e.getValue() <= 2)
-                .sorted((a, b) -> {
-                    if (a.getValue().equals(b.getValue())) {
-                        // Same distance: prioritize by frequency
-                        return wordFrequency.getOrDefault(b.getKey(), 0)
-                                .compareTo(wordFrequency.getOrDefault(a.getKey(), 0));
-                    }
-                    return a.getValue().compareTo(b.getValue());
-                })
-                .limit(Math.min(count, MAX_SUGGESTIONS))
-                .map(AbstractMap.SimpleEntry::getKey)
-                .collect(Collectors.toList());
+        // Candidates as (distance, term id) packed into longs
+        long[] candidates = new long[16];
+        int found = 0;
+        for (int d = 0; d < dictionarySize; d++) {
+            String dictWord = termDictionary.term(dictionaryWords[d]);
+            if (Math.abs(dictWord.length() - word.length()) > 3) {
+                continue;
+            }
+            int distance = levenshteinDistance(word, dictWord);
+            if (distance <= 2) {
+                if (found == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, found * 2);
+                }
+                candidates[found++] = ((long) distance << 32) | dictionaryWords[d];
+            }
+        }
 
+        // Closest first; same distance: prioritize by frequency
+        Long[] ranked = new Long[found];
+        for (int i = 0; i < found; i++) {
+            ranked[i] = candidates[i];
+        }
+        Arrays.sort(ranked, (a, b) -> {
+            int byDistance = Long.compare(a >>> 32, b >>> 32);
+            return byDistance != 0 ? byDistance
+                    : Integer.compare(wordFrequency[(int) (long) b], wordFrequency[(int) (long) a]);
+        });
+
+        List<String> suggestions = new ArrayList<>();
+        for (int i = 0; i < ranked.length && suggestions.size() < Math.min(count, MAX_SUGGESTIONS); i++) {
+            suggestions.add(termDictionary.term((int) (long) ranked[i]));
+        }
         return suggestions;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,220 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.db.MongoDBConnection;
+import com.example.model.News;
+import com.example.utils.RadixTrie;
+import com.example.utils.Tokenizer;
+import com.example.utils.TopK;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Prefix index behind the autocomplete endpoints.
+ *
+ * A compressed trie holds the vocabulary of the article catalog, updated incrementally
+ * as articles are ingested, together with how often each term has been searched
+ * (loaded from "search_frequency" at startup and counted in memory afterwards). A
+ * keystroke never reads MongoDB or the corpus. Only corpus words are suggested: searches
+ * raise the rank of words already in the trie but never add new ones, so arbitrary
+ * search strings can neither grow the index nor appear as suggestions.
+ *
+ * Terms are scored by a blend of search popularity and corpus frequency, and every trie
+ * node caches the TOP_K best terms below it, kept up to date along the path of each
+ * term whose counts change. A ranked suggestion request is one node lookup.
+ */
+@Service
+public class SuggestionIndex implements ArticleCatalog.Listener {
+
+    /**
+     * What is known about one term. Mutated only under the write lock.
+     */
+    static final class TermStats {
+        int occurrences; // in article headlines and descriptions
+        long searches;   // times searched
+    }
+
+    // Completions cached per trie node; larger requests fall back to walking the subtree
+    static final int TOP_K = 10;
+
+    // A search counts as much as this much log corpus frequency, so searched terms lead
+    // and corpus frequency orders the rest
+    private static final double CORPUS_WEIGHT = 1.0;
+
+    @Autowired
+    private ArticleCatalog articleCatalog;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RadixTrie<TermStats> trie = new RadixTrie<>(TOP_K, SuggestionIndex::score);
+
+    @PostConstruct
+    private void register() {
+        // Vocabulary first: stored search counts only apply to words already in the trie
+        articleCatalog.addListener(this);
+        loadSearchCounts();
+    }
+
+    @Override
+    public void onArticlesAdded(List<News> added, ArticleCatalog.Snapshot snapshot) {
+        // Count per batch first so the write lock is held only for the trie updates
+        Map<String, Integer> counts = new HashMap<>();
+        Tokenizer.TokenSink count = (text, start, end) ->
+                counts.merge(Tokenizer.lowercase(text, start, end), 1, Integer::sum);
+        for (News news : added) {
+            Tokenizer.ALL.tokenize(news.getTitle(), count);
+            Tokenizer.ALL.tokenize(news.getDescription(), count);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                int occurrences = entry.getValue();
+                trie.update(entry.getKey(), t -> new TermStats(), stats -> stats.occurrences += occurrences);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Count one search for a term (already lowercased). Terms that are not corpus words are
+     * ignored, so searches cannot grow the index.
+     */
+    public void recordSearch(String term) {
+        lock.writeLock().lock();
+        try {
+            if (trie.get(term) != null) {
+                trie.update(term, t -> new TermStats(), stats -> stats.searches++);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Article words starting with prefix, in alphabetical order.
+     */
+    public List<String> completeWords(String prefix, int limit) {
+        List<String> words = new ArrayList<>(Math.min(limit, 64));
+        if (limit <= 0) {
+            return words;
+        }
+        lock.readLock().lock();
+        try {
+            trie.visitPrefix(prefix, (term, stats) -> {
+                if (stats.occurrences > 0) {
+                    words.add(term);
+                }
+                return words.size() < limit;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return words;
+    }
+
+    /**
+     * Article words starting with prefix, best blended score first,
+     * then alphabetically.
+     *
+     * @return maps with "term" and "frequency" (times searched)
+     */
+    public List<Map<String, Object>> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return suggest(trie, prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best scored keys of trie starting with prefix; the caller holds the trie's read lock.
+     */
+    static List<Map<String, Object>> suggest(RadixTrie<TermStats> trie, String prefix, int limit) {
+        List<Map<String, Object>> result = new ArrayList<>(Math.min(Math.max(limit, 0), TOP_K));
+        if (limit <= 0) {
+            return result;
+        }
+        if (limit <= TOP_K) {
+            // Precomputed at the prefix node: no walk, no sort
+            trie.visitTop(prefix, (term, stats) -> {
+                result.add(suggestion(term, stats));
+                return result.size() < limit;
+            });
+            return result;
+        }
+
+        List<String> terms = new ArrayList<>();
+        List<TermStats> stats = new ArrayList<>();
+        trie.visitPrefix(prefix, (term, s) -> {
+            terms.add(term);
+            stats.add(s);
+            return true;
+        });
+        // Terms were visited alphabetically, and ties go to the lower index
+        for (int i : TopK.select(terms.size(), limit, i -> score(stats.get(i)))) {
+            result.add(suggestion(terms.get(i), stats.get(i)));
+        }
+        return result;
+    }
+
+    private static Map<String, Object> suggestion(String term, TermStats stats) {
+        Map<String, Object> suggestion = new HashMap<>();
+        suggestion.put("term", term);
+        suggestion.put("frequency", (int) stats.searches);
+        return suggestion;
+    }
+
+    // Searches plus log corpus frequency; only ever increases, as the trie caches require
+    static double score(TermStats stats) {
+        return stats.searches + CORPUS_WEIGHT * Math.log1p(stats.occurrences);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Runs before SearchStatsService merges the legacy "word" documents into "term" ones, so reads both
+    private void loadSearchCounts() {
+        try {
+            int loaded = 0;
+            lock.writeLock().lock();
+            try {
+                for (Document doc : MongoDBConnection.getDatabase().getCollection("search_frequency").find()) {
+                    String term = doc.getString("term") != null ? doc.getString("term") : doc.getString("word");
+                    Number count = (Number) doc.get("count");
+                    if (term == null || term.isEmpty() || count == null) {
+                        continue;
+                    }
+                    String key = term.toLowerCase();
+                    if (trie.get(key) == null) {
+                        continue;
+                    }
+                    long searches = count.longValue();
+                    trie.update(key, t -> new TermStats(), stats -> stats.searches += searches);
+                    loaded++;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.out.println("✅ SuggestionIndex: loaded " + loaded + " search counts");
+        } catch (Exception e) {
+            System.err.println("❌ SuggestionIndex: could not load search counts: " + e.getMessage());
+        }
+    }
+}
@@ -1,12 +1,9 @@
 package com.example.service;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -24,9 +21,17 @@ import org.springframework.web.client.RestTemplate;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.example.utils.ServiceMetrics;
+import com.example.utils.Tokenizer;
+
 @Service
 public class SummarizationService {
 
+    // Content words for the fallback summarizer: 3+ characters, minus stop words
+    private static final Tokenizer SUMMARY_TOKENIZER = new Tokenizer(3, new Tokenizer.StopWords(
+            "the", "is", "at", "which", "on", "a", "an", "and", "or", "but", "in", "with", "to", "for", "of"
+    ));
+
     @Value("${huggingface.api.token}")
     private String HF_TOKEN;
 
@@ -56,6 +61,10 @@ public class SummarizationService {
     }
 
     public String summarizeText(String text) {
+        return ServiceMetrics.time("SummarizationService", "summarizeText", () -> doSummarizeText(text));
+    }
+
+    private String doSummarizeText(String text) {
         if (text == null || text.trim().isEmpty()) return "Error: Text cannot be empty";
         if (HF_TOKEN == null || HF_TOKEN.isEmpty() || HF_TOKEN.equals("${huggingface.api.token}")) {
             return fallbackSummarize(text);
@@ -148,22 +157,17 @@ public class SummarizationService {
         if (sentences.length <= 2) return text;
 
         Map<String, Integer> wordFreq = new HashMap<>();
-        String[] words = text.toLowerCase().replaceAll("[^a-z0-9\\s]", "").split("\\s+");
-        Set<String> stopWords = new HashSet<>(Arrays.asList(
-                "the","is","at","which","on","a","an","and","or","but","in","with","to","for","of"
-        ));
-        for (String word : words) {
-            if (!stopWords.contains(word) && word.length() > 2)
-                wordFreq.put(word, wordFreq.getOrDefault(word, 0) + 1);
-        }
+        SUMMARY_TOKENIZER.tokenize(text, (chars, start, end) ->
+                wordFreq.merge(Tokenizer.lowercase(chars, start, end), 1, Integer::sum));
 
         Map<String, Double> sentenceScores = new HashMap<>();
         for (String sentence : sentences) {
-            double score = 0;
-            String[] sentWords = sentence.toLowerCase().replaceAll("[^a-z0-9\\s]", "").split("\\s+");
-            for (String word : sentWords) score += wordFreq.getOrDefault(word, 0);
-            if (sentWords.length > 0) score /= sentWords.length;
-            sentenceScores.put(sentence, score);
+            double[] score = new double[2]; // sum of word frequencies, word count
+            Tokenizer.ALL.tokenize(sentence, (chars, start, end) -> {
+                score[0] += wordFreq.getOrDefault(Tokenizer.lowercase(chars, start, end), 0);
+                score[1]++;
+            });
+            sentenceScores.put(sentence, score[1] > 0 ? score[0] / score[1] : 0);
         }
 
         List<String> topSentences = sentenceScores.entrySet().stream()
@@ -0,0 +1,75 @@
+package com.example.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Interns terms to dense int ids.
+ *
+ * Text subsystems keep their term statistics in primitive arrays indexed by id and
+ * their documents as {@link TermVector}s, instead of String-keyed boxed maps. The
+ * Spring bean is the shared corpus vocabulary; a throwaway instance can be created
+ * for one-off text (see TextAnalysisService).
+ *
+ * Lookups are lock-free; only interning a new term synchronizes.
+ */
+@Service
+public class TermDictionary {
+
+    /** Id returned by {@link #id} for a term that was never interned. */
+    public static final int UNKNOWN = -1;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] terms = new String[1024];
+    private volatile int size;
+
+    /**
+     * Id of a term, assigning the next id if it is new.
+     */
+    public int intern(String term) {
+        Integer id = ids.get(term);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(term);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            if (next == terms.length) {
+                terms = Arrays.copyOf(terms, next * 2);
+            }
+            terms[next] = term;
+            // Publish the term before its id becomes visible
+            size = next + 1;
+            ids.put(term, next);
+            return next;
+        }
+    }
+
+    /**
+     * Id of a term, or {@link #UNKNOWN} without interning it.
+     * Use for query-side text so user input cannot grow the vocabulary.
+     */
+    public int id(String term) {
+        Integer id = ids.get(term);
+        return id == null ? UNKNOWN : id;
+    }
+
+    public String term(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown term id " + id);
+        }
+        return terms[id];
+    }
+
+    /**
+     * Number of interned terms; ids are 0 .. size() - 1.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.service;
+
+import java.util.Arrays;
+
+/**
+ * Sparse term vector: term ids (ascending, distinct) with a weight each, stored as
+ * parallel primitive arrays. Ids come from a {@link TermDictionary}.
+ */
+public final class TermVector {
+
+    public static final TermVector EMPTY = new TermVector(new int[0], new float[0]);
+
+    private final int[] ids;
+    private final float[] weights;
+
+    private TermVector(int[] ids, float[] weights) {
+        this.ids = ids;
+        this.weights = weights;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public int termId(int i) {
+        return ids[i];
+    }
+
+    public float weight(int i) {
+        return weights[i];
+    }
+
+    /**
+     * Sum of all weights.
+     */
+    public float total() {
+        float sum = 0;
+        for (float weight : weights) {
+            sum += weight;
+        }
+        return sum;
+    }
+
+    /**
+     * Copy with every weight divided by the total, e.g. counts to tf / length.
+     */
+    public TermVector normalized() {
+        float total = total();
+        if (total == 0) {
+            return this;
+        }
+        float[] scaled = new float[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            scaled[i] = weights[i] / total;
+        }
+        return new TermVector(ids, scaled);
+    }
+
+    /**
+     * Dot product, as a merge over both sorted id arrays.
+     */
+    public double dot(TermVector other) {
+        double sum = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ids.length && j < other.ids.length) {
+            if (ids[i] < other.ids[j]) {
+                i++;
+            } else if (ids[i] > other.ids[j]) {
+                j++;
+            } else {
+                sum += (double) weights[i++] * other.weights[j++];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of this vector's weights over the terms that also occur in other.
+     */
+    public double overlap(TermVector other) {
+        double sum = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ids.length && j < other.ids.length) {
+            if (ids[i] < other.ids[j]) {
+                i++;
+            } else if (ids[i] > other.ids[j]) {
+                j++;
+            } else {
+                sum += weights[i++];
+                j++;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Accumulates (id, weight) pairs in any order; repeated ids are summed.
+     */
+    public static final class Builder {
+        private int[] ids = new int[16];
+        private float[] weights = new float[16];
+        private int size;
+
+        public Builder add(int id) {
+            return add(id, 1f);
+        }
+
+        public Builder add(int id, float weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = id;
+            weights[size] = weight;
+            size++;
+            return this;
+        }
+
+        public TermVector build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+
+            // Sort (id, weight) pairs by id: pack into longs so one primitive sort does it
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                packed[i] = ((long) ids[i] << 32) | i;
+            }
+            Arrays.sort(packed);
+
+            int[] outIds = new int[size];
+            float[] outWeights = new float[size];
+            int n = 0;
+            for (long entry : packed) {
+                int id = (int) (entry >>> 32);
+                float weight = weights[(int) entry];
+                if (n > 0 && outIds[n - 1] == id) {
+                    outWeights[n - 1] += weight;
+                } else {
+                    outIds[n] = id;
+                    outWeights[n] = weight;
+                    n++;
+                }
+            }
+            return new TermVector(Arrays.copyOf(outIds, n), Arrays.copyOf(outWeights, n));
+        }
+    }
+}
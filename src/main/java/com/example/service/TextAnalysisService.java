@@ -5,6 +5,8 @@ import java.util.Map;
 
 import org.springframework.stereotype.Service;
 
+import com.example.utils.Tokenizer;
+
 @Service
 public class TextAnalysisService {
 
@@ -20,17 +22,8 @@ public class TextAnalysisService {
             return frequencyMap; // empty map
         }
 
-        // Remove punctuation and convert to lowercase
-        String cleanedText = text.replaceAll("[^a-zA-Z0-9\\s]", "").toLowerCase();
-
-        // Split text into words
-        String[] words = cleanedText.split("\\s+");
-
-        for (String word : words) {
-            if (!word.isEmpty()) {
-                frequencyMap.put(word, frequencyMap.getOrDefault(word, 0) + 1);
-            }
-        }
+        Tokenizer.ALL.tokenize(text, (chars, start, end) ->
+                frequencyMap.merge(Tokenizer.lowercase(chars, start, end), 1, Integer::sum));
 
         return frequencyMap;
     }
@@ -9,10 +9,16 @@ import java.net.URLEncoder;
 
 import org.springframework.stereotype.Service;
 
+import com.example.utils.ServiceMetrics;
+
 @Service
 public class TextToSpeechService {
 
     public byte[] generateSpeech(String text) {
+        return ServiceMetrics.time("TextToSpeechService", "generateSpeech", () -> doGenerateSpeech(text));
+    }
+
+    private byte[] doGenerateSpeech(String text) {
         try {
             String apiUrl = "http://localhost:5500/api/tts?voice=en-us/ljspeech&text=" +
                     URLEncoder.encode(text, "UTF-8");
@@ -0,0 +1,231 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.model.News;
+import com.example.utils.CountMinSketch;
+import com.example.utils.ServiceMetrics;
+import com.example.utils.Tokenizer;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Streaming trending-terms detector.
+ *
+ * Terms from newly ingested headlines and from searches are counted in a ring of
+ * count-min sketches, one per time bucket (5 minutes over 24 hours by default), plus a
+ * running sketch of the whole window. A term is trending when its count over the last
+ * few buckets is well above what its rate over the rest of the window predicts.
+ *
+ * Memory is fixed by the sketch shape and the size of the candidate table, whatever
+ * the vocabulary: the sketches count every term, the candidate table only remembers
+ * which recently seen terms to report on.
+ */
+@Service
+public class TrendingService implements ArticleCatalog.Listener {
+
+    private static final Tokenizer TOKENIZER = new Tokenizer(3, new Tokenizer.StopWords(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from",
+        "has", "he", "in", "is", "it", "its", "of", "on", "that", "the",
+        "to", "was", "will", "with", "this", "but", "they", "have", "had",
+        "what", "when", "where", "who", "which", "why", "how", "all", "each",
+        "she", "or", "we", "been", "were", "their", "said", "can", "may",
+        "new", "after", "over", "says", "more", "about", "into", "than", "not"
+    ));
+
+    @Value("${trending.bucket-ms:300000}")
+    private long bucketMs;
+
+    // 288 x 5 minutes = 24 hours
+    @Value("${trending.buckets:288}")
+    private int bucketCount;
+
+    // Buckets that make up the "current" rate; the rest of the window is the baseline
+    @Value("${trending.current-buckets:3}")
+    private int currentBuckets;
+
+    @Value("${trending.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${trending.sketch-width:1024}")
+    private int sketchWidth;
+
+    // Most recently seen terms that are considered for the trending list
+    @Value("${trending.max-candidates:5000}")
+    private int maxCandidates;
+
+    // Current count must be at least this many times the baseline expectation
+    @Value("${trending.min-ratio:2.0}")
+    private double minRatio;
+
+    @Value("${trending.min-count:3}")
+    private int minCount;
+
+    @Autowired
+    private ArticleCatalog articleCatalog;
+
+    // All guarded by this
+    private CountMinSketch[] buckets;
+    private long[] bucketEpochs;
+    private CountMinSketch window;
+    private long firstEpoch = -1;
+    private long latestEpoch = -1;
+    private Map<String, Long> candidates;
+
+    // False while the catalog replays the corpus already in the database at registration
+    private volatile boolean initialLoadDone;
+
+    @PostConstruct
+    private void register() {
+        buckets = new CountMinSketch[bucketCount];
+        bucketEpochs = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(sketchDepth, sketchWidth);
+            bucketEpochs[i] = -1;
+        }
+        window = new CountMinSketch(sketchDepth, sketchWidth);
+        // Access order, so the least recently seen term is evicted first
+        candidates = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxCandidates;
+            }
+        };
+        articleCatalog.addListener(this);
+        initialLoadDone = true;
+    }
+
+    /**
+     * Count headline terms of newly ingested articles. The replay of the corpus already
+     * in the database at startup is not new arrivals, so it is not counted; the first
+     * ingest into an initially empty database is.
+     */
+    @Override
+    public void onArticlesAdded(List<News> added, ArticleCatalog.Snapshot snapshot) {
+        if (!initialLoadDone) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (News news : added) {
+            recordText(news.getTitle(), now);
+        }
+    }
+
+    /**
+     * Count the terms of a search query.
+     */
+    public void recordSearch(String query) {
+        recordText(query, System.currentTimeMillis());
+    }
+
+    private void recordText(String text, long now) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            long epoch = now / bucketMs;
+            CountMinSketch bucket = bucketFor(epoch);
+            TOKENIZER.tokenize(text, (chars, start, end) -> {
+                long hash = CountMinSketch.hash(chars, start, end);
+                bucket.add(hash, 1);
+                window.add(hash, 1);
+                candidates.put(Tokenizer.lowercase(chars, start, end), epoch);
+            });
+        }
+    }
+
+    /**
+     * Terms whose rate over the last few buckets exceeds their baseline rate.
+     *
+     * @param limit maximum number of terms
+     * @return map with "trending" (term, count, expected, ratio; highest ratio first), the window
+     *         settings and "warmingUp" (true, with nothing trending, until a baseline exists)
+     */
+    public Map<String, Object> getTrending(int limit) {
+        return ServiceMetrics.time("TrendingService", "getTrending", () -> doGetTrending(limit));
+    }
+
+    private synchronized Map<String, Object> doGetTrending(int limit) {
+        long nowEpoch = System.currentTimeMillis() / bucketMs;
+        bucketFor(nowEpoch);
+
+        // Baseline buckets observed so far, at most the window minus the current buckets
+        long observed = firstEpoch < 0 ? 0 : Math.min(nowEpoch - firstEpoch + 1, bucketCount);
+        long baselineBuckets = Math.max(observed - currentBuckets, 0);
+
+        List<Map<String, Object>> trending = new ArrayList<>();
+        // Without any baseline every term would look new, so nothing is reported until
+        // one full bucket beyond the current ones has been observed
+        boolean warmingUp = baselineBuckets == 0;
+        if (!warmingUp) {
+            for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+                // Terms not seen in the current buckets cannot be trending now
+                if (candidate.getValue() <= nowEpoch - currentBuckets) {
+                    continue;
+                }
+                long hash = CountMinSketch.hash(candidate.getKey());
+                int current = 0;
+                for (int i = 0; i < currentBuckets; i++) {
+                    current += estimate(nowEpoch - i, hash);
+                }
+                if (current < minCount) {
+                    continue;
+                }
+                int baseline = Math.max(window.estimate(hash) - current, 0);
+                double expected = (double) baseline * currentBuckets / baselineBuckets;
+                double ratio = (current + 1.0) / (expected + 1.0);
+                if (ratio < minRatio) {
+                    continue;
+                }
+
+                Map<String, Object> term = new LinkedHashMap<>();
+                term.put("term", candidate.getKey());
+                term.put("count", current);
+                term.put("expected", Math.round(expected * 100) / 100.0);
+                term.put("ratio", Math.round(ratio * 100) / 100.0);
+                trending.add(term);
+            }
+        }
+        trending.sort((a, b) -> Double.compare((double) b.get("ratio"), (double) a.get("ratio")));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", "success");
+        result.put("bucketMinutes", bucketMs / 60000.0);
+        result.put("currentBuckets", currentBuckets);
+        result.put("baselineBuckets", baselineBuckets);
+        result.put("warmingUp", warmingUp);
+        result.put("trending", Collections.unmodifiableList(trending.subList(0, Math.min(limit, trending.size()))));
+        return result;
+    }
+
+    // Count in the bucket for epoch, or 0 if that bucket has been recycled
+    private int estimate(long epoch, long hash) {
+        int slot = (int) Math.floorMod(epoch, (long) bucketCount);
+        return bucketEpochs[slot] == epoch ? buckets[slot].estimate(hash) : 0;
+    }
+
+    // Bucket for epoch. Moving to a later epoch recycles every slot passed on the way,
+    // removing its counts from the window, so the window never holds more than 24 hours.
+    private CountMinSketch bucketFor(long epoch) {
+        if (firstEpoch < 0) {
+            firstEpoch = epoch;
+            latestEpoch = epoch - 1;
+        }
+        for (long e = Math.max(latestEpoch + 1, epoch - bucketCount + 1); e <= epoch; e++) {
+            int slot = (int) Math.floorMod(e, (long) bucketCount);
+            window.subtract(buckets[slot]);
+            buckets[slot].clear();
+            bucketEpochs[slot] = e;
+        }
+        latestEpoch = Math.max(latestEpoch, epoch);
+        return buckets[(int) Math.floorMod(latestEpoch, (long) bucketCount)];
+    }
+}
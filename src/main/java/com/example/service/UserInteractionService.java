@@ -2,11 +2,13 @@ package com.example.service;
 
 import com.example.db.MongoDBConnection;
 import com.example.model.UserInteraction;
+import com.example.utils.Tokenizer;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.Sorts;
 import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -16,6 +18,19 @@ import java.util.stream.Collectors;
 @Service
 public class UserInteractionService {
 
+    @Autowired
+    private TermDictionary termDictionary;
+
+    @Autowired
+    private PopularityService popularityService;
+
+    // Keyword candidates: words longer than 3 characters, minus stop words
+    private static final Tokenizer KEYWORD_TOKENIZER = new Tokenizer(4, new Tokenizer.StopWords(
+            "the", "a", "an", "and", "or", "but", "in", "on", "at", "to", "for",
+            "of", "with", "by", "from", "as", "is", "was", "are", "be", "been",
+            "has", "have", "had", "will", "would", "could", "should", "may", "might"
+    ));
+
     private MongoCollection<Document> getCollection() {
         MongoDatabase db = MongoDBConnection.getDatabase();
         return db.getCollection("user_interactions");
@@ -39,6 +54,7 @@ public class UserInteractionService {
                     .append("timestamp", LocalDateTime.now().toString());
 
             getCollection().insertOne(interaction);
+            popularityService.recordView(articleId);
             System.out.println("✅ Tracked click: " + userId + " -> " + articleTitle);
 
         } catch (Exception e) {
@@ -158,12 +174,8 @@ public class UserInteractionService {
                     .collect(Collectors.toList());
 
             // 2. Calculate Keywords (from Clicks AND Searches)
-            Map<String, Integer> wordFrequency = new HashMap<>();
-            Set<String> stopWords = new HashSet<>(Arrays.asList(
-                    "the", "a", "an", "and", "or", "but", "in", "on", "at", "to", "for",
-                    "of", "with", "by", "from", "as", "is", "was", "are", "be", "been",
-                    "has", "have", "had", "will", "would", "could", "should", "may", "might"
-            ));
+            // Weighted counts per term id; words the corpus has never seen cannot match an article
+            TermVector.Builder wordFrequency = new TermVector.Builder();
 
             for (Document doc : history) {
                 String textToAnalyze = "";
@@ -179,25 +191,27 @@ public class UserInteractionService {
                 }
 
                 if (textToAnalyze != null) {
-                    String[] words = textToAnalyze
-                            .toLowerCase()
-                            .replaceAll("[^a-z0-9\\s]", "")
-                            .split("\\s+");
-                    
-                    for (String word : words) {
-                        if (word.length() > 3 && !stopWords.contains(word)) {
-                            wordFrequency.put(word, wordFrequency.getOrDefault(word, 0) + weight);
+                    float wordWeight = weight;
+                    KEYWORD_TOKENIZER.tokenize(textToAnalyze, (text, start, end) -> {
+                        int id = termDictionary.id(Tokenizer.lowercase(text, start, end));
+                        if (id != TermDictionary.UNKNOWN) {
+                            wordFrequency.add(id, wordWeight);
                         }
-                    }
+                    });
                 }
             }
 
             // Get top 15 keywords (increased from 10 to accommodate search terms)
-            List<String> keywords = wordFrequency.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .limit(15)
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toList());
+            TermVector counts = wordFrequency.build();
+            Integer[] order = new Integer[counts.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Float.compare(counts.weight(b), counts.weight(a)));
+            List<String> keywords = new ArrayList<>();
+            for (int i = 0; i < order.length && keywords.size() < 15; i++) {
+                keywords.add(termDictionary.term(counts.termId(order[i])));
+            }
 
             return Map.of(
                     "favoriteSections", favoriteSections,
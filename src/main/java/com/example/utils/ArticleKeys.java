@@ -0,0 +1,42 @@
+package com.example.utils;
+
+/**
+ * Canonical lookup keys for article fields such as Section and Source.
+ *
+ * Crawled values arrive with stray quotes, escaped quotes, mixed case and uneven
+ * whitespace ("\"Top Stories\"", "TOP  STORIES", "top stories"). The canonical key
+ * strips all of that so filters can be plain equality matches on an indexed field.
+ */
+public class ArticleKeys {
+
+    public static final String SECTION_KEY = "sectionKey";
+    public static final String SOURCE_KEY = "sourceKey";
+
+    private ArticleKeys() {
+    }
+
+    /**
+     * Lowercase, quote-free, single-spaced form of a value. Returns "" for null.
+     */
+    public static String canonical(String value) {
+        if (value == null) return "";
+        StringBuilder sb = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+}
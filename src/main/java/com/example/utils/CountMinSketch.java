@@ -0,0 +1,97 @@
+package com.example.utils;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch: approximate counts for an unbounded set of keys in fixed memory.
+ *
+ * Each key is counted in one cell of every row; its estimate is the smallest of those
+ * cells. Estimates never undercount, and overcount by at most about
+ * 2 × total / width with high probability.
+ *
+ * Not thread-safe; callers serialize access.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final int[] cells;
+
+    /**
+     * @param depth number of rows (independent hashes)
+     * @param width cells per row, rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        int w = Integer.highestOneBit(Math.max(width, 2) - 1) << 1;
+        this.mask = w - 1;
+        this.cells = new int[depth * w];
+    }
+
+    public void add(long hash, int count) {
+        for (int row = 0; row < depth; row++) {
+            cells[cell(hash, row)] += count;
+        }
+    }
+
+    public int estimate(long hash) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, cells[cell(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Subtract the counts of another sketch of the same shape, e.g. a bucket leaving a window.
+     */
+    public void subtract(CountMinSketch other) {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] -= other.cells[i];
+        }
+    }
+
+    /**
+     * Halve every cell, rounding down, so old counts fade while relative counts are kept.
+     */
+    public void halve() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] >>= 1;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(cells, 0);
+    }
+
+    /**
+     * 64-bit hash of the lowercased characters of text, for use as a sketch key.
+     */
+    public static long hash(CharSequence text) {
+        return hash(text, 0, text.length());
+    }
+
+    /**
+     * Same as {@link #hash(CharSequence)} for text[start, end), without copying it.
+     */
+    public static long hash(CharSequence text, int start, int end) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            h ^= Character.toLowerCase(text.charAt(i));
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // Row i uses h1 + i * h2 (double hashing), so one 64-bit hash serves every row
+    private int cell(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.utils;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the free-text Time of crawled articles into an epoch publishedAt.
+ *
+ * The crawlers store whatever the site shows: relative times ("2 hrs ago",
+ * "Posted: 5 minutes ago"), dates with or without a year ("12 Oct 2024", "Oct 12"),
+ * a bare clock time for today ("14:05") or, for NYTimes, an ISO local date-time.
+ * Relative and partial values are resolved against a reference time, normally when
+ * the article was ingested, in the zone of the source's site.
+ */
+public final class PublishedAt {
+
+    public static final String FIELD = "publishedAt";
+
+    // Site zones by canonical source (see ArticleKeys); others use UTC
+    private static final Map<String, ZoneId> SOURCE_ZONES = Map.of(
+            "bbc", ZoneId.of("Europe/London"),
+            "the guardian", ZoneId.of("Europe/London"),
+            "cbc", ZoneId.of("America/Toronto"),
+            "globalnews", ZoneId.of("America/Toronto"),
+            "nytimes", ZoneId.of("America/New_York"));
+
+    private static final Pattern RELATIVE = Pattern.compile(
+            "(\\d+|an?|one)\\s*(s|secs?|seconds?|m|mins?|minutes?|h|hrs?|hours?|d|days?|w|wks?|weeks?)\\s+ago",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern CLOCK = Pattern.compile("(\\d{1,2}):(\\d{2})\\s*([ap]\\.?m\\.?)?", Pattern.CASE_INSENSITIVE);
+
+    // Dates with a year, then dates without one (year taken from the reference time)
+    private static final List<DateTimeFormatter> DATES = List.of(
+            formatter("d MMM uuuu"), formatter("d MMMM uuuu"),
+            formatter("MMM d, uuuu"), formatter("MMMM d, uuuu"), formatter("MMM d uuuu"),
+            formatter("MMMM d uuuu"), formatter("MMM. d, uuuu"), formatter("uuuu-MM-dd"));
+    private static final List<DateTimeFormatter> MONTH_DAYS = List.of(
+            formatter("d MMM"), formatter("d MMMM"), formatter("MMM d"), formatter("MMMM d"), formatter("MMM. d"));
+
+    private PublishedAt() {
+    }
+
+    /**
+     * publishedAt for a Time value, falling back to the reference time when the value
+     * cannot be parsed, so every article gets a position in recency order.
+     *
+     * @param source    Source of the article, used to pick the site's time zone
+     * @param time      the Time value as crawled
+     * @param reference epoch millis that relative times are measured from
+     */
+    public static long resolve(String source, String time, long reference) {
+        Long parsed = parse(source, time, reference);
+        return parsed != null ? parsed : reference;
+    }
+
+    /**
+     * @return epoch millis, or null if the value is empty or in no known format
+     */
+    public static Long parse(String source, String time, long reference) {
+        if (time == null) {
+            return null;
+        }
+        String text = cleanup(time);
+        if (text.isEmpty() || text.equalsIgnoreCase("n/a") || text.equalsIgnoreCase("null")) {
+            return null;
+        }
+
+        ZoneId zone = SOURCE_ZONES.getOrDefault(ArticleKeys.canonical(source), ZoneId.of("UTC"));
+        ZonedDateTime now = Instant.ofEpochMilli(reference).atZone(zone);
+        String lower = text.toLowerCase(Locale.ROOT);
+
+        if (lower.equals("just now") || lower.equals("now")) {
+            return reference;
+        }
+        if (lower.equals("yesterday")) {
+            return now.minusDays(1).toInstant().toEpochMilli();
+        }
+
+        Matcher relative = RELATIVE.matcher(lower);
+        if (relative.find()) {
+            return reference - relativeMillis(relative.group(1), relative.group(2));
+        }
+
+        Long absolute = parseIso(text, zone);
+        if (absolute != null) {
+            return absolute;
+        }
+
+        for (DateTimeFormatter format : DATES) {
+            try {
+                return LocalDate.parse(text, format).atStartOfDay(zone).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        for (DateTimeFormatter format : MONTH_DAYS) {
+            try {
+                // No year shown: the most recent such day not after the reference
+                LocalDate date = MonthDay.parse(text, format).atYear(now.getYear());
+                if (date.isAfter(now.toLocalDate())) {
+                    date = date.minusYears(1);
+                }
+                return date.atStartOfDay(zone).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+
+        Matcher clock = CLOCK.matcher(lower);
+        if (clock.matches()) {
+            return clockTime(clock, now);
+        }
+        return null;
+    }
+
+    // Strip labels the crawlers leave in ("Posted:", "Updated", a trailing timezone abbreviation)
+    private static String cleanup(String time) {
+        String text = time.trim();
+        for (String label : new String[] { "posted:", "last updated:", "updated:", "updated", "published:", "published" }) {
+            if (text.regionMatches(true, 0, label, 0, label.length())) {
+                text = text.substring(label.length()).trim();
+            }
+        }
+        if (text.endsWith(" ET") || text.endsWith(" EST") || text.endsWith(" EDT")
+                || text.endsWith(" GMT") || text.endsWith(" BST")) {
+            text = text.substring(0, text.lastIndexOf(' ')).trim();
+        }
+        return text;
+    }
+
+    private static long relativeMillis(String amount, String unit) {
+        long n = Character.isDigit(amount.charAt(0)) ? Long.parseLong(amount) : 1;
+        long unitMillis;
+        switch (unit.charAt(0)) {
+            case 's':
+                unitMillis = 1_000L;
+                break;
+            case 'm':
+                unitMillis = 60_000L;
+                break;
+            case 'h':
+                unitMillis = 3_600_000L;
+                break;
+            case 'd':
+                unitMillis = 86_400_000L;
+                break;
+            default:
+                unitMillis = 7 * 86_400_000L;
+        }
+        return n * unitMillis;
+    }
+
+    private static Long parseIso(String text, ZoneId zone) {
+        try {
+            return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            // not an offset date-time
+        }
+        try {
+            return LocalDateTime.parse(text).atZone(zone).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // A clock time alone means today; if that is still ahead of the reference, yesterday
+    private static Long clockTime(Matcher clock, ZonedDateTime now) {
+        try {
+            int hour = Integer.parseInt(clock.group(1));
+            int minute = Integer.parseInt(clock.group(2));
+            if (clock.group(3) != null) {
+                hour = hour % 12 + (clock.group(3).startsWith("p") ? 12 : 0);
+            }
+            ZonedDateTime at = now.with(LocalTime.of(hour, minute));
+            if (at.isAfter(now)) {
+                at = at.minusDays(1);
+            }
+            return at.toInstant().toEpochMilli();
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static DateTimeFormatter formatter(String pattern) {
+        return new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(pattern).toFormatter(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compressed (radix) trie from strings to values, for prefix lookups.
+ *
+ * Chains of single-child nodes are merged into one edge labelled with the whole run of
+ * characters, so the tree has at most 2n nodes for n keys. Children are kept sorted by
+ * their first character and found by binary search; a walk visits keys in
+ * lexicographic order. Finding the subtree of a prefix costs O(prefix length) whatever
+ * the number of keys.
+ *
+ * A trie created with a score function also caches, in every node, the k best scored
+ * keys of its subtree. Values change only through {@link #update}, which re-ranks the
+ * key in the caches along its path; since scores only ever increase, a key can only
+ * enter or move up a cache, so the caches stay exact. The best completions of a prefix
+ * are then read from one node, without visiting or sorting the subtree.
+ *
+ * Not thread-safe; callers serialize writes against reads.
+ */
+public class RadixTrie<V> {
+
+    /**
+     * Receives keys in lexicographic order; return false to stop the walk.
+     */
+    @FunctionalInterface
+    public interface Visitor<V> {
+        boolean visit(String key, V value);
+    }
+
+    private static final class Node<V> {
+        String label;
+        char[] firsts = new char[0];
+        Node<V>[] children = newArray(0);
+        V value;
+        String key;       // full key, set on nodes that hold a value
+        Node<V>[] top;    // best scored value nodes of the subtree, best first
+        int topSize;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        // Index of the child whose label starts with c, or -(insertion point) - 1
+        int find(char c) {
+            return Arrays.binarySearch(firsts, c);
+        }
+
+        void insert(int at, Node<V> child) {
+            int n = firsts.length;
+            char[] f = new char[n + 1];
+            Node<V>[] ch = newArray(n + 1);
+            System.arraycopy(firsts, 0, f, 0, at);
+            System.arraycopy(children, 0, ch, 0, at);
+            f[at] = child.label.charAt(0);
+            ch[at] = child;
+            System.arraycopy(firsts, at, f, at + 1, n - at);
+            System.arraycopy(children, at, ch, at + 1, n - at);
+            firsts = f;
+            children = ch;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Node<V>[] newArray(int size) {
+            return (Node<V>[]) new Node[size];
+        }
+    }
+
+    private final Node<V> root = new Node<>("");
+    private final int k;
+    private final ToDoubleFunction<V> score;
+    private int size;
+
+    public RadixTrie() {
+        this(0, null);
+    }
+
+    /**
+     * @param k     number of best keys cached per node
+     * @param score score of a value; must never decrease for a key
+     */
+    public RadixTrie(int k, ToDoubleFunction<V> score) {
+        this.k = k;
+        this.score = score;
+        if (k > 0) {
+            root.top = Node.newArray(k);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public V get(String key) {
+        Node<V> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int idx = node.find(key.charAt(i));
+            if (idx < 0) {
+                return null;
+            }
+            Node<V> child = node.children[idx];
+            if (!key.startsWith(child.label, i)) {
+                return null;
+            }
+            i += child.label.length();
+            node = child;
+        }
+        return node.value;
+    }
+
+    /**
+     * Value for key, inserting the one computed by create if the key is absent.
+     */
+    public V computeIfAbsent(String key, Function<String, V> create) {
+        return insert(key, create, null).value;
+    }
+
+    /**
+     * Apply change to the value for key (inserting the one computed by create if the key
+     * is absent), then re-rank the key in the cached top keys along its path.
+     */
+    public V update(String key, Function<String, V> create, Consumer<V> change) {
+        Node<V>[] path = Node.newArray(key.length() + 1);
+        int[] depth = new int[1];
+        Node<V> node = insert(key, create, (n) -> path[depth[0]++] = n);
+        change.accept(node.value);
+        if (k > 0) {
+            for (int i = 0; i < depth[0]; i++) {
+                rank(path[i], node);
+            }
+        }
+        return node.value;
+    }
+
+    // Walk to key, creating nodes as needed; onPath (if given) sees every node from the root down
+    private Node<V> insert(String key, Function<String, V> create, Consumer<Node<V>> onPath) {
+        Node<V> node = root;
+        if (onPath != null) onPath.accept(node);
+        int i = 0;
+        while (i < key.length()) {
+            int idx = node.find(key.charAt(i));
+            if (idx < 0) {
+                Node<V> leaf = new Node<>(key.substring(i));
+                if (k > 0) leaf.top = Node.newArray(k);
+                node.insert(-idx - 1, leaf);
+                node = leaf;
+                if (onPath != null) onPath.accept(node);
+                break;
+            }
+
+            Node<V> child = node.children[idx];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge: child keeps the tail of its label under a new middle node,
+                // which has the same subtree and so the same cached top keys
+                Node<V> middle = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                if (k > 0) {
+                    middle.top = child.top.clone();
+                    middle.topSize = child.topSize;
+                }
+                middle.insert(0, child);
+                node.children[idx] = middle;
+                child = middle;
+            }
+            i += common;
+            node = child;
+            if (onPath != null) onPath.accept(node);
+        }
+
+        if (node.value == null) {
+            node.value = create.apply(key);
+            node.key = key;
+            size++;
+        }
+        return node;
+    }
+
+    // Insert or move up entry in node's cached top keys, keeping them best first
+    private void rank(Node<V> node, Node<V> entry) {
+        Node<V>[] top = node.top;
+        int pos = -1;
+        for (int i = 0; i < node.topSize; i++) {
+            if (top[i] == entry) {
+                pos = i;
+                break;
+            }
+        }
+        if (pos < 0) {
+            if (node.topSize < k) {
+                pos = node.topSize++;
+            } else if (better(entry, top[k - 1])) {
+                pos = k - 1;
+            } else {
+                return;
+            }
+            top[pos] = entry;
+        }
+        while (pos > 0 && better(entry, top[pos - 1])) {
+            top[pos] = top[pos - 1];
+            top[--pos] = entry;
+        }
+    }
+
+    // Higher score first, then alphabetical
+    private boolean better(Node<V> a, Node<V> b) {
+        double sa = score.applyAsDouble(a.value);
+        double sb = score.applyAsDouble(b.value);
+        return sa != sb ? sa > sb : a.key.compareTo(b.key) < 0;
+    }
+
+    /**
+     * Visit the cached best keys starting with prefix, best first (at most k of them).
+     * Only for tries created with a score function.
+     *
+     * @return false if the visitor stopped the walk
+     */
+    public boolean visitTop(String prefix, Visitor<V> visitor) {
+        Node<V> node = subtree(prefix, null);
+        if (node == null) {
+            return true;
+        }
+        for (int i = 0; i < node.topSize; i++) {
+            if (!visitor.visit(node.top[i].key, node.top[i].value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int topCapacity() {
+        return k;
+    }
+
+    /**
+     * Walk the keys starting with prefix, in lexicographic order, until the visitor stops.
+     *
+     * @return false if the visitor stopped the walk
+     */
+    public boolean visitPrefix(String prefix, Visitor<V> visitor) {
+        StringBuilder path = new StringBuilder(prefix.length() + 16);
+        Node<V> node = subtree(prefix, path);
+        return node == null || walk(node, path, visitor);
+    }
+
+    // Root of the subtree holding the keys that start with prefix, or null if there are none.
+    // path (if given) receives the key of that node, which may extend past the prefix.
+    private Node<V> subtree(String prefix, StringBuilder path) {
+        Node<V> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int idx = node.find(prefix.charAt(i));
+            if (idx < 0) {
+                return null;
+            }
+            Node<V> child = node.children[idx];
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common < prefix.length() && common < child.label.length()) {
+                return null;
+            }
+            if (path != null) path.append(child.label);
+            i += child.label.length();
+            node = child;
+        }
+        return node;
+    }
+
+    private boolean walk(Node<V> node, StringBuilder path, Visitor<V> visitor) {
+        if (node.value != null && !visitor.visit(path.toString(), node.value)) {
+            return false;
+        }
+        for (Node<V> child : node.children) {
+            int length = path.length();
+            path.append(child.label);
+            boolean more = walk(child, path, visitor);
+            path.setLength(length);
+            if (!more) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Length of the common prefix of label and key[from..]
+    private static int commonPrefix(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(from + n)) {
+            n++;
+        }
+        return n;
+    }
+}
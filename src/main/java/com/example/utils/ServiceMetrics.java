@@ -0,0 +1,55 @@
+package com.example.utils;
+
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Timers for service hot paths and crawler page loads.
+ *
+ * Meters go to the global Micrometer registry, which Spring Boot backs with the
+ * Prometheus registry (scraped at /actuator/prometheus). Plain classes such as the
+ * crawlers and {@link com.example.db.MongoDBConnection} can record without injection;
+ * outside Spring (main-class tools) recording is a no-op.
+ */
+public class ServiceMetrics {
+
+    public static final String SERVICE_TIMER = "newsagg.service";
+    public static final String CRAWLER_PAGE_TIMER = "newsagg.crawler.page.load";
+
+    private ServiceMetrics() {
+    }
+
+    /**
+     * Time a service call, tagged with service, method and outcome (success/error).
+     */
+    public static <T> T time(String service, String method, Supplier<T> call) {
+        return record(SERVICE_TIMER, call, "service", service, "method", method);
+    }
+
+    /**
+     * Time a crawler page load (driver.get plus wait for content).
+     */
+    public static void timePageLoad(String crawler, Runnable load) {
+        record(CRAWLER_PAGE_TIMER, () -> {
+            load.run();
+            return null;
+        }, "crawler", crawler);
+    }
+
+    private static <T> T record(String name, Supplier<T> call, String... tags) {
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .register(Metrics.globalRegistry));
+        }
+    }
+}
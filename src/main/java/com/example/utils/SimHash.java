@@ -0,0 +1,78 @@
+package com.example.utils;
+
+/**
+ * 64-bit SimHash fingerprints of article text.
+ *
+ * Each content word votes on all 64 bits with its own hash; the fingerprint keeps the
+ * bits with a positive total. Texts that share most of their words end up a few bits
+ * apart, so near-duplicates can be found by Hamming distance.
+ */
+public final class SimHash {
+
+    /** Fingerprint of text with too few words to compare reliably. */
+    public static final long NONE = 0L;
+
+    // Fewer content words than this and small edits flip too many bits
+    private static final int MIN_FEATURES = 4;
+
+    // Headline words count double: they carry the story, descriptions add detail
+    private static final int HEADLINE_WEIGHT = 2;
+
+    private static final Tokenizer TOKENIZER = new Tokenizer(3, new Tokenizer.StopWords(
+            "the", "and", "for", "with", "from", "that", "this", "was", "are", "has", "have",
+            "will", "its", "but", "not", "after", "over", "into", "about", "says", "said"));
+
+    private SimHash() {
+    }
+
+    public static long fingerprint(String headline, String description) {
+        int[] votes = new int[64];
+        int[] features = new int[1];
+        Tokenizer.TokenSink headlineSink = (text, start, end) -> {
+            vote(votes, hash(text, start, end), HEADLINE_WEIGHT);
+            features[0]++;
+        };
+        Tokenizer.TokenSink descriptionSink = (text, start, end) -> {
+            vote(votes, hash(text, start, end), 1);
+            features[0]++;
+        };
+        TOKENIZER.tokenize(headline, headlineSink);
+        TOKENIZER.tokenize(description, descriptionSink);
+        if (features[0] < MIN_FEATURES) {
+            return NONE;
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint == NONE ? 1L : fingerprint;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void vote(int[] votes, long hash, int weight) {
+        for (int bit = 0; bit < 64; bit++) {
+            votes[bit] += ((hash >>> bit) & 1L) != 0 ? weight : -weight;
+        }
+    }
+
+    // FNV-1a over the lowercased chars, then a 64-bit finalizer to spread the bits
+    private static long hash(CharSequence text, int start, int end) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            h ^= Character.toLowerCase(text.charAt(i));
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
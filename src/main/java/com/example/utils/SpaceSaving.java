@@ -0,0 +1,211 @@
+package com.example.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy hitters: approximate top items of an unbounded stream in a fixed
+ * number of counters.
+ *
+ * An item that is not monitored when the counters are full takes over the counter with
+ * the smallest count, inheriting that count as its error. Each counter therefore bounds
+ * its item's true count: count - error &lt;= true count &lt;= count, with error at most
+ * total / capacity. Any item not monitored has a true count of at most the smallest
+ * monitored count.
+ *
+ * Counters are kept in a stream summary: buckets of equal count in a doubly linked list
+ * ordered by count. A unit increment moves a counter to the neighbouring bucket in O(1),
+ * and the top k are read from the largest bucket down in O(k).
+ *
+ * Not thread-safe; callers serialize access.
+ */
+public class SpaceSaving {
+
+    /**
+     * One monitored item. The true count lies in [count - error, count].
+     */
+    public static final class Entry {
+        private final String item;
+        private final long count;
+        private final long error;
+
+        Entry(String item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getItem() {
+            return item;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+
+    private static final class Counter {
+        String item;
+        long error;
+        Bucket bucket;
+        Counter prev, next; // within the bucket
+
+        Counter(String item) {
+            this.item = item;
+        }
+    }
+
+    private static final class Bucket {
+        final long count;
+        Counter first;
+        Bucket smaller, larger;
+
+        Bucket(long count) {
+            this.count = count;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+    private Bucket min, max;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void add(String item) {
+        add(item, 1);
+    }
+
+    public void add(String item, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        total += weight;
+        Counter counter = counters.get(item);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(item);
+            } else {
+                // Take over a smallest counter; its count is the most this item can have had
+                counter = min.first;
+                counters.remove(counter.item);
+                counter.item = item;
+                counter.error = counter.bucket.count;
+            }
+            counters.put(item, counter);
+        }
+        long count = counter.bucket == null ? weight : counter.bucket.count + weight;
+        move(counter, count);
+    }
+
+    // Move counter into the bucket for count, which is larger than its current count
+    private void move(Counter counter, long count) {
+        // Largest bucket known to be below count, or null to start from the smallest
+        Bucket below = null;
+        Bucket from = counter.bucket;
+        if (from != null) {
+            below = detach(counter) ? from.smaller : from;
+        }
+        Bucket next = below == null ? min : below.larger;
+        while (next != null && next.count < count) {
+            below = next;
+            next = next.larger;
+        }
+
+        Bucket target = next;
+        if (target == null || target.count != count) {
+            target = new Bucket(count);
+            target.smaller = below;
+            target.larger = next;
+            if (below == null) min = target; else below.larger = target;
+            if (next == null) max = target; else next.smaller = target;
+        }
+        counter.bucket = target;
+        counter.prev = null;
+        counter.next = target.first;
+        if (target.first != null) target.first.prev = counter;
+        target.first = counter;
+    }
+
+    // Unlink counter from its bucket; true if that emptied and removed the bucket
+    private boolean detach(Counter counter) {
+        Bucket bucket = counter.bucket;
+        if (counter.prev != null) counter.prev.next = counter.next; else bucket.first = counter.next;
+        if (counter.next != null) counter.next.prev = counter.prev;
+        counter.bucket = null;
+        if (bucket.first != null) {
+            return false;
+        }
+        if (bucket.smaller != null) bucket.smaller.larger = bucket.larger; else min = bucket.larger;
+        if (bucket.larger != null) bucket.larger.smaller = bucket.smaller; else max = bucket.smaller;
+        return true;
+    }
+
+    /**
+     * The k monitored items with the highest counts, highest first.
+     */
+    public List<Entry> top(int k) {
+        List<Entry> top = new ArrayList<>(Math.max(Math.min(k, counters.size()), 0));
+        for (Bucket bucket = max; bucket != null && top.size() < k; bucket = bucket.smaller) {
+            for (Counter c = bucket.first; c != null && top.size() < k; c = c.next) {
+                top.add(new Entry(c.item, bucket.count, c.error));
+            }
+        }
+        return top;
+    }
+
+    /**
+     * True if top(k) is certainly the true top k as a set: the smallest lower bound among
+     * them is at least the largest possible count of any other item.
+     */
+    public boolean isTopGuaranteed(int k) {
+        List<Entry> top = top(k + 1);
+        long others = top.size() > k ? top.get(k).getCount() : minCount();
+        for (int i = 0; i < Math.min(k, top.size()); i++) {
+            if (top.get(i).getCount() - top.get(i).getError() < others) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Count bounds for item, or null if it is not monitored (its count is then at most
+     * {@link #minCount()}).
+     */
+    public Entry get(String item) {
+        Counter c = counters.get(item);
+        return c == null ? null : new Entry(c.item, c.bucket.count, c.error);
+    }
+
+    /**
+     * Smallest monitored count: an upper bound on the count of any item not monitored.
+     * 0 while there are free counters.
+     */
+    public long minCount() {
+        return counters.size() < capacity || min == null ? 0 : min.count;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups near-duplicate articles (the same story from several outlets or sections)
+ * into story clusters by SimHash.
+ *
+ * Fingerprints are split into 4 bands of 16 bits and indexed per band. Two
+ * fingerprints at most 3 bits apart agree exactly on at least one band, so looking up
+ * an article's 4 band buckets finds every candidate; only those are compared bit by bit.
+ *
+ * A new cluster is named after the _id of its first article. Every process that
+ * replays the collection in _id order (the uploader and ArticleCatalog) therefore
+ * derives the same ids for articles stored without one.
+ *
+ * Not thread-safe; callers serialize access.
+ */
+public class StoryClusterer {
+
+    public static final String CLUSTER_FIELD = "storyClusterId";
+    public static final String SIMHASH_FIELD = "simHash";
+
+    /** Largest Hamming distance still treated as the same story. */
+    public static final int MAX_DISTANCE = 3;
+
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 16;
+
+    // Skip pathological buckets instead of scanning them in full
+    private static final int MAX_BUCKET_SCAN = 256;
+
+    private long[] fingerprints = new long[1024];
+    private final List<String> clusterIds = new ArrayList<>();
+    private final Map<Long, int[]> buckets = new HashMap<>();
+
+    /**
+     * Cluster id for an article, registering its fingerprint for later articles.
+     *
+     * @param fingerprint      SimHash of the article, or SimHash.NONE
+     * @param knownClusterId   cluster already stored for the article, or null to look one up
+     * @param articleId        _id of the article, the id of the cluster it starts if any
+     * @return the known id, the id of a near-duplicate's cluster, or articleId
+     */
+    public String assign(long fingerprint, String knownClusterId, String articleId) {
+        if (fingerprint == SimHash.NONE) {
+            return knownClusterId != null ? knownClusterId : articleId;
+        }
+
+        String clusterId = knownClusterId != null ? knownClusterId : findCluster(fingerprint);
+        if (clusterId == null) {
+            clusterId = articleId;
+        }
+        register(fingerprint, clusterId);
+        return clusterId;
+    }
+
+    /**
+     * Cluster of the nearest registered near-duplicate, or null; registers nothing.
+     */
+    public String lookup(long fingerprint) {
+        return fingerprint == SimHash.NONE ? null : findCluster(fingerprint);
+    }
+
+    public int size() {
+        return clusterIds.size();
+    }
+
+    private String findCluster(long fingerprint) {
+        String best = null;
+        int bestDistance = MAX_DISTANCE + 1;
+        for (int band = 0; band < BANDS; band++) {
+            int[] bucket = buckets.get(bandKey(fingerprint, band));
+            if (bucket == null) {
+                continue;
+            }
+            // bucket[0] is the entry count; newest entries last
+            for (int i = bucket[0]; i >= 1 && i > bucket[0] - MAX_BUCKET_SCAN; i--) {
+                int distance = SimHash.distance(fingerprint, fingerprints[bucket[i]]);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = clusterIds.get(bucket[i]);
+                }
+            }
+        }
+        return best;
+    }
+
+    private void register(long fingerprint, String clusterId) {
+        int entry = clusterIds.size();
+        if (entry == fingerprints.length) {
+            fingerprints = Arrays.copyOf(fingerprints, entry * 2);
+        }
+        fingerprints[entry] = fingerprint;
+        clusterIds.add(clusterId);
+
+        for (int band = 0; band < BANDS; band++) {
+            buckets.merge(bandKey(fingerprint, band), new int[] { 1, entry }, (bucket, single) -> {
+                int size = bucket[0] + 1;
+                if (size == bucket.length) {
+                    bucket = Arrays.copyOf(bucket, bucket.length * 2);
+                }
+                bucket[size] = entry;
+                bucket[0] = size;
+                return bucket;
+            });
+        }
+    }
+
+    private static long bandKey(long fingerprint, int band) {
+        long value = (fingerprint >>> (band * BAND_BITS)) & 0xFFFFL;
+        return ((long) band << BAND_BITS) | value;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass word tokenizer shared by the text services.
+ *
+ * A token is a maximal run of letters or digits. The tokenizer walks the input once
+ * and reports each token as [start, end) offsets into the original text; lowercasing,
+ * the minimum length check and stop-word filtering are done on the characters in
+ * place, so tokenizing allocates nothing. Sinks that need the word call
+ * {@link #lowercase} only for the tokens they keep.
+ *
+ * Instances are immutable and thread-safe.
+ */
+public final class Tokenizer {
+
+    /**
+     * Receives tokens as offsets into the text being tokenized.
+     */
+    @FunctionalInterface
+    public interface TokenSink {
+        void token(CharSequence text, int start, int end);
+    }
+
+    /** Every token, no filtering. */
+    public static final Tokenizer ALL = new Tokenizer(1, StopWords.NONE);
+
+    private final int minLength;
+    private final StopWords stopWords;
+
+    public Tokenizer(int minLength, StopWords stopWords) {
+        this.minLength = minLength;
+        this.stopWords = stopWords;
+    }
+
+    /**
+     * Emit each token of text that is at least minLength long and not a stop word.
+     */
+    public void tokenize(CharSequence text, TokenSink sink) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean word = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (word) {
+                if (start < 0) start = i;
+            } else if (start >= 0) {
+                if (i - start >= minLength && !stopWords.contains(text, start, i)) {
+                    sink.token(text, start, i);
+                }
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Convenience for callers that want the lowercased tokens as strings.
+     */
+    public List<String> tokens(CharSequence text) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(text, (t, start, end) -> tokens.add(lowercase(t, start, end)));
+        return tokens;
+    }
+
+    /**
+     * Lowercased copy of text[start, end).
+     */
+    public static String lowercase(CharSequence text, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            chars[i - start] = Character.toLowerCase(text.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Whether text[start, end) begins with prefix, ignoring case. prefix must be lowercase.
+     */
+    public static boolean startsWith(CharSequence text, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Case-insensitive stop-word set that matches char ranges without building strings.
+     * Open addressing over the lowercase words, keyed by a hash computed while reading.
+     */
+    public static final class StopWords {
+
+        public static final StopWords NONE = new StopWords();
+
+        private final char[][] table;
+        private final int mask;
+
+        public StopWords(String... words) {
+            int capacity = Integer.highestOneBit(Math.max(words.length, 1) * 4);
+            table = new char[capacity][];
+            mask = capacity - 1;
+            for (String word : words) {
+                char[] chars = word.toLowerCase().toCharArray();
+                int slot = hash(chars, 0, chars.length) & mask;
+                while (table[slot] != null && !equals(table[slot], chars, 0, chars.length)) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = chars;
+            }
+        }
+
+        public boolean contains(CharSequence text, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + Character.toLowerCase(text.charAt(i));
+            }
+            for (int slot = h & mask; table[slot] != null; slot = (slot + 1) & mask) {
+                char[] candidate = table[slot];
+                if (candidate.length == end - start && matches(candidate, text, start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int hash(char[] chars, int from, int to) {
+            int h = 0;
+            for (int i = from; i < to; i++) {
+                h = 31 * h + chars[i];
+            }
+            return h;
+        }
+
+        private static boolean equals(char[] a, char[] b, int from, int to) {
+            if (a.length != to - from) return false;
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] != b[from + i]) return false;
+            }
+            return true;
+        }
+
+        private static boolean matches(char[] word, CharSequence text, int start) {
+            for (int i = 0; i < word.length; i++) {
+                if (word[i] != Character.toLowerCase(text.charAt(start + i))) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Parallel top-k selection over scored items 0 .. size-1.
+ *
+ * The range is split into partitions that run as fork-join tasks; each keeps a bounded
+ * min-heap of its best k, and heaps are merged pairwise on the way back up. Cost is
+ * O(n log k) spread across the pool instead of a single-threaded O(n log n) sort.
+ *
+ * Order is by score descending, ties by lower index first (the same as a stable sort
+ * of the items in index order). Items scored NaN are excluded.
+ */
+public final class TopK {
+
+    // Below this many items a partition is scanned on the current thread
+    private static final int PARTITION_SIZE = 4096;
+
+    private TopK() {
+    }
+
+    /**
+     * @param size  number of items
+     * @param k     number of results wanted
+     * @param score score of item i; must be thread-safe, NaN to exclude the item
+     * @return indexes of the best min(k, eligible items) items, best first
+     */
+    public static int[] select(int size, int k, IntToDoubleFunction score) {
+        if (size <= 0 || k <= 0) {
+            return new int[0];
+        }
+        // Never allocate for more results than there are items (k may be Integer.MAX_VALUE)
+        k = Math.min(k, size);
+        Heap heap = size <= PARTITION_SIZE
+                ? scan(0, size, k, score)
+                : ForkJoinPool.commonPool().invoke(new Partition(0, size, k, score));
+        return heap.drainBestFirst();
+    }
+
+    private static Heap scan(int from, int to, int k, IntToDoubleFunction score) {
+        Heap heap = new Heap(Math.min(k, to - from));
+        for (int i = from; i < to; i++) {
+            double s = score.applyAsDouble(i);
+            if (!Double.isNaN(s)) {
+                heap.offer(s, i);
+            }
+        }
+        return heap;
+    }
+
+    private static final class Partition extends RecursiveTask<Heap> {
+        private final int from;
+        private final int to;
+        private final int k;
+        private final IntToDoubleFunction score;
+
+        Partition(int from, int to, int k, IntToDoubleFunction score) {
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.score = score;
+        }
+
+        @Override
+        protected Heap compute() {
+            if (to - from <= PARTITION_SIZE) {
+                return scan(from, to, k, score);
+            }
+            int mid = (from + to) >>> 1;
+            Partition left = new Partition(from, mid, k, score);
+            left.fork();
+            Heap right = new Partition(mid, to, k, score).compute();
+            Heap merged = left.join();
+            // Each half's heap is sized to its own range; the union may need more room
+            int capacity = Math.min(k, to - from);
+            if (merged.capacity() < capacity) {
+                Heap larger = new Heap(capacity);
+                larger.offerAll(merged);
+                merged = larger;
+            }
+            merged.offerAll(right);
+            return merged;
+        }
+    }
+
+    /**
+     * Bounded min-heap of (score, index) in parallel primitive arrays; the root is the
+     * worst entry kept, so a new entry only has to beat the root.
+     */
+    private static final class Heap {
+        private final double[] scores;
+        private final int[] items;
+        private int size;
+
+        Heap(int capacity) {
+            scores = new double[capacity];
+            items = new int[capacity];
+        }
+
+        int capacity() {
+            return scores.length;
+        }
+
+        void offer(double score, int item) {
+            if (size < scores.length) {
+                scores[size] = score;
+                items[size] = item;
+                siftUp(size++);
+            } else if (better(score, item, scores[0], items[0])) {
+                scores[0] = score;
+                items[0] = item;
+                siftDown(0);
+            }
+        }
+
+        void offerAll(Heap other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.scores[i], other.items[i]);
+            }
+        }
+
+        int[] drainBestFirst() {
+            int[] result = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = items[0];
+                size--;
+                scores[0] = scores[size];
+                items[0] = items[size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private static boolean better(double scoreA, int itemA, double scoreB, int itemB) {
+            return scoreA != scoreB ? scoreA > scoreB : itemA < itemB;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(scores[parent], items[parent], scores[i], items[i])) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int worst = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && better(scores[worst], items[worst], scores[left], items[left])) {
+                    worst = left;
+                }
+                if (right < size && better(scores[worst], items[worst], scores[right], items[right])) {
+                    worst = right;
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            double s = scores[a];
+            scores[a] = scores[b];
+            scores[b] = s;
+            int t = items[a];
+            items[a] = items[b];
+            items[b] = t;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.bench;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.model.News;
+import com.example.service.PhraseIndex;
+import com.example.service.SuggestionIndex;
+
+/**
+ * Per-keystroke latency of the autocomplete prefix index at 100k distinct terms, and of
+ * phrase completion over 100k headlines.
+ *
+ * Sample-time mode reports percentiles; the target is p99 under 1 ms. Prefixes are one
+ * to three characters (after a first word, for phrases), the worst case since they match
+ * the most terms.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.bench.AutoCompleteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutoCompleteBenchmark {
+
+    @Param({ "100000" })
+    private int terms;
+
+    @Param({ "100000" })
+    private int headlines;
+
+    private SuggestionIndex index;
+    private PhraseIndex phraseIndex;
+    private String[] prefixes;
+    private String[] phrasePrefixes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Set<String> vocabulary = new HashSet<>();
+        while (vocabulary.size() < terms) {
+            vocabulary.add(randomWord(random));
+        }
+
+        // 20 words per "article"
+        List<News> articles = new ArrayList<>();
+        StringBuilder title = new StringBuilder();
+        int words = 0;
+        for (String word : vocabulary) {
+            title.append(word).append(' ');
+            if (++words % 20 == 0) {
+                News news = new News();
+                news.setTitle(title.toString());
+                articles.add(news);
+                title.setLength(0);
+            }
+        }
+        index = new SuggestionIndex();
+        index.onArticlesAdded(articles, null);
+
+        List<String> all = new ArrayList<>(vocabulary);
+        for (int i = 0; i < 20_000; i++) {
+            index.recordSearch(all.get(random.nextInt(all.size())));
+        }
+
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String word = all.get(random.nextInt(all.size()));
+            prefixes[i] = word.substring(0, 1 + random.nextInt(Math.min(3, word.length())));
+        }
+
+        // 6 to 12 words per headline, drawn with a skew so common phrases recur
+        List<News> titles = new ArrayList<>();
+        for (int i = 0; i < headlines; i++) {
+            title.setLength(0);
+            int length = 6 + random.nextInt(7);
+            for (int w = 0; w < length; w++) {
+                title.append(all.get((int) (all.size() * Math.pow(random.nextDouble(), 8)))).append(' ');
+            }
+            News news = new News();
+            news.setTitle(title.toString());
+            titles.add(news);
+        }
+        phraseIndex = new PhraseIndex();
+        for (int i = 0; i < titles.size(); i += 1000) {
+            phraseIndex.onArticlesAdded(titles.subList(i, Math.min(i + 1000, titles.size())), null);
+        }
+
+        phrasePrefixes = new String[1024];
+        for (int i = 0; i < phrasePrefixes.length; i++) {
+            String[] first = titles.get(random.nextInt(titles.size())).getTitle().split(" ");
+            phrasePrefixes[i] = first[0] + " " + first[1].substring(0, random.nextInt(Math.min(4, first[1].length() + 1)));
+        }
+    }
+
+    private static String randomWord(Random random) {
+        int length = 3 + random.nextInt(8);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            // Skewed letter distribution, so short prefixes have large subtrees
+            chars[i] = (char) ('a' + (int) (26 * Math.pow(random.nextDouble(), 1.5)));
+        }
+        return new String(chars);
+    }
+
+    @Benchmark
+    public void suggestByFrequency(Blackhole blackhole) {
+        blackhole.consume(index.suggest(prefixes[next++ & 1023], 10));
+    }
+
+    @Benchmark
+    public void completeWords(Blackhole blackhole) {
+        blackhole.consume(index.completeWords(prefixes[next++ & 1023], 10));
+    }
+
+    @Benchmark
+    public void completePhrases(Blackhole blackhole) {
+        blackhole.consume(phraseIndex.suggest(phrasePrefixes[next++ & 1023], 10));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AutoCompleteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
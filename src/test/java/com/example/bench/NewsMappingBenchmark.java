@@ -0,0 +1,120 @@
+package com.example.bench;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.db.NewsCodec;
+import com.example.model.News;
+
+/**
+ * Maps 10k serialized article documents to News:
+ * the old Document + toString + regex trimQuotes path versus NewsCodec.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.bench.NewsMappingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsMappingBenchmark {
+
+    private static final int ARTICLES = 10_000;
+
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private final NewsCodec newsCodec = new NewsCodec();
+    private final DecoderContext decoderContext = DecoderContext.builder().build();
+
+    private List<byte[]> rawArticles;
+
+    @Setup
+    public void setUp() {
+        rawArticles = new ArrayList<>(ARTICLES);
+        for (int i = 0; i < ARTICLES; i++) {
+            Document doc = new Document("_id", new ObjectId())
+                    .append("Source", "\"BBC\"")
+                    .append("Section", "\"Top Stories\"")
+                    .append("Headline", "\"Headline number " + i + " about the economy and the election\"")
+                    .append("Description", "\"A longer description of story " + i + " with a few more words in it.\"")
+                    .append("Time", "\"" + (i % 24) + " hrs ago\"")
+                    .append("Category", "\"World\"")
+                    .append("Link", "\"https://www.bbc.com/news/articles/" + i + "\"")
+                    .append("ImageLink", "\"https://ichef.bbci.co.uk/images/" + i + ".jpg\"");
+            RawBsonDocument raw = new RawBsonDocument(doc, documentCodec);
+            ByteBuffer buffer = raw.getByteBuffer().asNIO();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            rawArticles.add(bytes);
+        }
+    }
+
+    @Benchmark
+    public List<News> documentAndRegex() {
+        List<News> result = new ArrayList<>(ARTICLES);
+        for (byte[] bytes : rawArticles) {
+            Document doc = documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), decoderContext);
+            News news = new News();
+            news.setId(doc.get("_id").toString());
+            news.setTitle(trimQuotes(safeGetString(doc, "Headline")));
+            news.setSource(trimQuotes(safeGetString(doc, "Source")));
+            news.setLink(trimQuotes(safeGetString(doc, "Link")));
+            news.setDate(trimQuotes(safeGetString(doc, "Time")));
+            news.setSection(trimQuotes(safeGetString(doc, "Section")));
+            news.setImageLink(trimQuotes(safeGetString(doc, "ImageLink")));
+            news.setDescription(trimQuotes(safeGetString(doc, "Description")));
+            news.setCategory(trimQuotes(safeGetString(doc, "Category")));
+            result.add(news);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<News> newsCodec() {
+        List<News> result = new ArrayList<>(ARTICLES);
+        for (byte[] bytes : rawArticles) {
+            result.add(newsCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), decoderContext));
+        }
+        return result;
+    }
+
+    // Copies of the helpers NewsService/HomeService used before NewsCodec
+    private static String safeGetString(Document doc, String key) {
+        Object o = doc.get(key);
+        if (o == null) return null;
+        return o.toString();
+    }
+
+    private static String trimQuotes(String value) {
+        if (value == null) return null;
+        return value.replaceAll("^\"|\"$", "").trim();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NewsMappingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.bench;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.utils.Tokenizer;
+
+/**
+ * Tokenizes 1 KB of article-like text per operation:
+ * the old toLowerCase + replaceAll + split path versus the shared Tokenizer.
+ *
+ * Both produce the same lowercased, length- and stop-word-filtered words as Strings, as
+ * production callers do. tokenizerOffsets shows the floor when a sink needs only offsets.
+ *
+ * Runs with the GC profiler; gc.alloc.rate.norm is the allocation in bytes per KB of text.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.bench.TokenizerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    private static final String[] WORDS = {
+            "The", "government", "announced", "new", "climate", "policy", "on", "Monday,", "and",
+            "officials", "said", "it", "will", "affect", "energy", "prices", "across", "the",
+            "country's", "largest", "cities.", "Election", "2024:", "what", "voters", "need", "to", "know"
+    };
+
+    private static final String[] STOP_WORDS = { "the", "and", "on", "it", "will", "to", "what", "said" };
+
+    private static final Set<String> STOP_WORD_SET = Set.of(STOP_WORDS);
+
+    private static final Tokenizer TOKENIZER = new Tokenizer(3, new Tokenizer.StopWords(STOP_WORDS));
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(1024);
+        while (sb.length() < 1024) {
+            sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        text = sb.substring(0, 1024);
+    }
+
+    @Benchmark
+    public void regexSplit(Blackhole blackhole) {
+        String[] words = text.toLowerCase().replaceAll("[^a-z0-9\\s]", " ").trim().split("\\s+");
+        for (String word : words) {
+            if (word.length() >= 3 && !STOP_WORD_SET.contains(word)) {
+                blackhole.consume(word);
+            }
+        }
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) {
+        TOKENIZER.tokenize(text, (chars, start, end) -> blackhole.consume(Tokenizer.lowercase(chars, start, end)));
+    }
+
+    @Benchmark
+    public void tokenizerOffsets(Blackhole blackhole) {
+        TOKENIZER.tokenize(text, (chars, start, end) -> blackhole.consume(end - start));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenizerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks RadixTrie against a TreeMap, and its per-node top-k caches against a full sort
+ * of each prefix's subtree.
+ */
+public class RadixTrieTest {
+
+    private static final int K = 5;
+
+    private static final class Count {
+        long value;
+    }
+
+    private final RadixTrie<Count> trie = new RadixTrie<>(K, c -> c.value);
+    private final TreeMap<String, Long> oracle = new TreeMap<>();
+
+    private void add(String key, long by) {
+        trie.update(key, k -> new Count(), c -> c.value += by);
+        oracle.merge(key, by, Long::sum);
+    }
+
+    @Test
+    public void splitNodeKeepsTopCache() {
+        add("romania", 3);
+        add("romanus", 1);
+        add("rom", 2);   // splits "roman" below "rom"
+        add("romb", 5);  // splits again at "rom"
+
+        assertEquals(List.of("romb", "romania", "rom", "romanus"), top("r"));
+        assertEquals(List.of("romania", "romanus"), top("roman"));
+        assertEquals(List.of("romania"), top("romani"));
+        assertEquals(List.of(), top("romx"));
+    }
+
+    @Test
+    public void randomUpdatesMatchBruteForce() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            keys.add(randomWord(random));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            // Skewed so some keys climb into the caches after starting at the bottom
+            String key = keys.get((int) (keys.size() * Math.pow(random.nextDouble(), 2)));
+            add(key, 1 + random.nextInt(3));
+
+            if (i % 1000 == 999) {
+                assertMatchesOracle(random);
+            }
+        }
+        assertEquals(oracle.size(), trie.size());
+    }
+
+    private void assertMatchesOracle(Random random) {
+        for (int i = 0; i < 200; i++) {
+            String word = randomWord(random);
+            String prefix = word.substring(0, random.nextInt(Math.min(3, word.length() + 1)));
+            assertEquals(bruteForceTop(prefix), top(prefix), "top of \"" + prefix + "\"");
+
+            List<String> walked = new ArrayList<>();
+            trie.visitPrefix(prefix, (key, value) -> walked.add(key));
+            List<String> expected = new ArrayList<>(oracle.subMap(prefix, prefix + Character.MAX_VALUE).keySet());
+            assertEquals(expected, walked, "keys under \"" + prefix + "\"");
+        }
+        for (Map.Entry<String, Long> entry : oracle.entrySet()) {
+            assertEquals(entry.getValue().longValue(), trie.get(entry.getKey()).value);
+        }
+    }
+
+    private List<String> top(String prefix) {
+        List<String> top = new ArrayList<>();
+        trie.visitTop(prefix, (key, value) -> top.add(key));
+        return top;
+    }
+
+    // Highest count first, then alphabetical, over the whole subtree
+    private List<String> bruteForceTop(String prefix) {
+        List<String> keys = new ArrayList<>(oracle.subMap(prefix, prefix + Character.MAX_VALUE).keySet());
+        keys.sort((a, b) -> {
+            int cmp = Long.compare(oracle.get(b), oracle.get(a));
+            return cmp != 0 ? cmp : a.compareTo(b);
+        });
+        return keys.subList(0, Math.min(K, keys.size()));
+    }
+
+    private static String randomWord(Random random) {
+        int length = 1 + random.nextInt(7);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(4));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the Space-Saving bounds against exact counts of the same stream.
+ */
+public class SpaceSavingTest {
+
+    @Test
+    public void exactWhileUnderCapacity() {
+        SpaceSaving summary = new SpaceSaving(10);
+        summary.add("a", 3);
+        summary.add("b");
+        summary.add("a");
+        summary.add("c", 2);
+
+        List<SpaceSaving.Entry> top = summary.top(10);
+        assertEquals(List.of("a", "c", "b"), top.stream().map(SpaceSaving.Entry::getItem).toList());
+        assertEquals(4, top.get(0).getCount());
+        assertEquals(0, top.get(0).getError());
+        assertEquals(0, summary.minCount());
+        assertTrue(summary.isTopGuaranteed(2));
+        assertEquals(7, summary.total());
+    }
+
+    @Test
+    public void evictionInheritsSmallestCount() {
+        SpaceSaving summary = new SpaceSaving(3);
+        summary.add("a", 10);
+        summary.add("b", 5);
+        summary.add("c", 2);
+        summary.add("d");
+
+        assertNull(summary.get("c"));
+        assertEquals(3, summary.get("d").getCount());
+        assertEquals(2, summary.get("d").getError());
+        assertEquals(3, summary.minCount());
+    }
+
+    @Test
+    public void boundsHoldOnSkewedStream() {
+        Random random = new Random(1);
+        int capacity = 100;
+        SpaceSaving summary = new SpaceSaving(capacity);
+        Map<String, Long> exact = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            String item = "t" + (int) Math.pow(5000, random.nextDouble());
+            long weight = random.nextInt(20) == 0 ? 3 : 1;
+            summary.add(item, weight);
+            exact.merge(item, weight, Long::sum);
+
+            if (i % 20_000 == 19_999) {
+                assertBounds(summary, exact, capacity);
+            }
+        }
+    }
+
+    private static void assertBounds(SpaceSaving summary, Map<String, Long> exact, int capacity) {
+        long total = exact.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(total, summary.total());
+
+        List<SpaceSaving.Entry> all = summary.top(Integer.MAX_VALUE);
+        assertEquals(Math.min(capacity, exact.size()), all.size());
+
+        Set<String> monitored = new HashSet<>();
+        long previous = Long.MAX_VALUE;
+        for (SpaceSaving.Entry entry : all) {
+            long truth = exact.get(entry.getItem());
+            assertTrue(entry.getCount() <= previous, "highest count first");
+            assertTrue(entry.getCount() - entry.getError() <= truth && truth <= entry.getCount(),
+                    entry.getItem() + ": " + truth + " not in [" + (entry.getCount() - entry.getError()) + ", " + entry.getCount() + "]");
+            assertTrue(entry.getError() <= total / capacity, "error at most total / capacity");
+            previous = entry.getCount();
+            monitored.add(entry.getItem());
+        }
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            if (!monitored.contains(entry.getKey())) {
+                assertTrue(entry.getValue() <= summary.minCount(), "unmonitored count at most minCount");
+            }
+        }
+
+        // A guaranteed top k must be the true top k as a set
+        List<Long> sortedTruth = new ArrayList<>(exact.values());
+        sortedTruth.sort((a, b) -> Long.compare(b, a));
+        for (int k = 1; k <= 20; k++) {
+            if (!summary.isTopGuaranteed(k)) {
+                continue;
+            }
+            long kth = sortedTruth.get(k - 1);
+            for (SpaceSaving.Entry entry : summary.top(k)) {
+                assertTrue(exact.get(entry.getItem()) >= kth, "guaranteed top " + k + " holds " + entry.getItem());
+            }
+        }
+    }
+}